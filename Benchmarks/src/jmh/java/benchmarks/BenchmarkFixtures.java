@@ -0,0 +1,45 @@
+package benchmarks;
+
+import models.GameRoom;
+import models.GameState;
+import models.Move;
+import models.Player;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static GameRoom startedRoom(int boardSize, int winningLength) {
+        Player playerX = new Player("benchmark-x");
+        Player playerO = new Player("benchmark-o");
+        playerX.setIpAddress("192.168.0.10");
+        playerO.setIpAddress("192.168.0.11");
+        GameRoom room = new GameRoom("benchmark", playerX, boardSize, winningLength);
+        room.addPlayer(playerO);
+        room.startGame();
+        return room;
+    }
+
+    static GameRoom roomWithMoves(int boardSize, int winningLength, int moveCount) {
+        GameRoom room = startedRoom(boardSize, winningLength);
+        GameState state = room.getGameState();
+        for (int i = 0; i < moveCount; i++) {
+            Player player = i % 2 == 0 ? state.getPlayerX() : state.getPlayerO();
+            state.addMove(new Move(i / boardSize, i % boardSize, i, state.getGameID(), player));
+            state.setCurrentPlayerTurn(i % 2 == 0 ? state.getPlayerO() : state.getPlayerX());
+        }
+        return room;
+    }
+
+    static Move nextMove(GameState state) {
+        int index = state.getMoves().size();
+        Player player = index % 2 == 0 ? state.getPlayerX() : state.getPlayerO();
+        return new Move(index / state.getBoardSize(), index % state.getBoardSize(), index, state.getGameID(), player);
+    }
+
+    static int[] parseBoard(String boardConfig) {
+        String[] parts = boardConfig.split(":");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import chat.ChatHub;
+import client.ChatClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One chat line from a ChatClient through the ChatHub to the other client in
+ * the room over loopback, which covers framing, routing and parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatBenchmark {
+
+    @Param({"16", "256"})
+    public int messageLength;
+
+    private ChatHub chatHub;
+    private ChatClient sender;
+    private ChatClient receiver;
+    private String message;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        chatHub = new ChatHub(0, roomId -> true);
+        chatHub.start();
+        UUID roomId = UUID.randomUUID();
+        sender = new ChatClient(roomId, UUID.randomUUID());
+        sender.connect("localhost", chatHub.getPort());
+        receiver = new ChatClient(roomId, UUID.randomUUID());
+        receiver.connect("localhost", chatHub.getPort());
+        while (receiver.receiveMessage() == null) {
+            sender.sendMessage("warm-up");
+            Thread.sleep(10);
+        }
+        while (receiver.receiveMessage() != null) {
+            Thread.sleep(10);
+        }
+        message = "m".repeat(messageLength);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sender.close();
+        receiver.close();
+        chatHub.close();
+    }
+
+    @Benchmark
+    public String clientToClient() {
+        sender.sendMessage(message);
+        String received;
+        while ((received = receiver.receiveMessage()) == null) {
+            Thread.onSpinWait();
+        }
+        return received;
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import controllers.EloRating;
+import controllers.GameRoomManager;
+import controllers.Leaderboard;
+import models.GameRoom;
+import models.Move;
+import models.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import persistence.PlayerStatsStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+/**
+ * Moves through {@link GameRoomManager} with every thread playing in its own
+ * room, at 1, 2, 4 and as many threads as there are cores. Rooms only share
+ * the manager, so throughput should grow with the thread count. Each game is
+ * restarted one move before it would end, so no result reaches the stats log
+ * or the leaderboard and only the per-room lock is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoomScalingBenchmark {
+    private static final int[][] DRAW_SEQUENCE = {
+            {0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {2, 0}, {1, 2}, {2, 2}, {2, 1}
+    };
+
+    @State(Scope.Benchmark)
+    public static class Manager {
+        PlayerStatsStore statsStore;
+        GameRoomManager roomManager;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Logger rootLogger = Logger.getLogger("");
+            rootLogger.setLevel(java.util.logging.Level.WARNING);
+            for (Handler handler : rootLogger.getHandlers()) {
+                handler.setLevel(java.util.logging.Level.WARNING);
+            }
+            statsStore = new PlayerStatsStore(Files.createTempDirectory("tictactoe-bench"), Long.MAX_VALUE);
+            roomManager = new GameRoomManager(statsStore, new Leaderboard(), new EloRating(EloRating.DEFAULT_K_FACTOR));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            statsStore.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnRoom {
+        private final Player playerX = new Player("scaling-x");
+        private final Player playerO = new Player("scaling-o");
+        private GameRoom room;
+        private int moveIndex;
+
+        @Setup(Level.Trial)
+        public void setUp(Manager manager) throws RemoteException {
+            newGame(manager.roomManager);
+        }
+
+        void newGame(GameRoomManager roomManager) throws RemoteException {
+            room = roomManager.createRoom("scaling", playerX, 3, 3);
+            roomManager.joinRoom(room, playerO);
+            roomManager.startGame(room);
+            moveIndex = 0;
+        }
+
+        Move nextMove() {
+            int[] cell = DRAW_SEQUENCE[moveIndex];
+            return new Move(cell[0], cell[1], moveIndex, room.getGameState().getGameID(),
+                    moveIndex % 2 == 0 ? playerX : playerO);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean makeMove1Thread(Manager manager, OwnRoom own) throws RemoteException {
+        return play(manager, own);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean makeMove2Threads(Manager manager, OwnRoom own) throws RemoteException {
+        return play(manager, own);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean makeMove4Threads(Manager manager, OwnRoom own) throws RemoteException {
+        return play(manager, own);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean makeMoveAllCores(Manager manager, OwnRoom own) throws RemoteException {
+        return play(manager, own);
+    }
+
+    private static boolean play(Manager manager, OwnRoom own) throws RemoteException {
+        boolean finished = manager.roomManager.makeMove(own.room, own.nextMove());
+        if (++own.moveIndex == DRAW_SEQUENCE.length - 1) {
+            own.newGame(manager.roomManager);
+        }
+        return finished;
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import controllers.TicTacToeRules;
+import models.GameState;
+import models.Move;
+import models.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RulesBenchmark {
+
+    @Param({"3:3", "15:5", "19:5"})
+    public String board;
+
+    @Param({"10", "50", "90"})
+    public int fillPercent;
+
+    private GameState state;
+    private Move nextMove;
+
+    @Setup
+    public void setUp() {
+        int[] config = BenchmarkFixtures.parseBoard(board);
+        int cells = config[0] * config[0];
+        int moveCount = Math.max(1, Math.min(cells - 1, cells * fillPercent / 100));
+        state = BenchmarkFixtures.roomWithMoves(config[0], config[1], moveCount).getGameState();
+        nextMove = BenchmarkFixtures.nextMove(state);
+    }
+
+    @Benchmark
+    public Player checkWinner() {
+        return TicTacToeRules.checkWinner(state);
+    }
+
+    @Benchmark
+    public boolean isDraw() {
+        return TicTacToeRules.isDraw(state);
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return TicTacToeRules.isValidMove(state, nextMove);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import models.GameRoom;
+import models.GameState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"3:3", "15:5", "19:5"})
+    public String board;
+
+    @Param({"10", "90"})
+    public int fillPercent;
+
+    private GameRoom room;
+    private GameState state;
+    private byte[] serializedRoom;
+    private byte[] serializedState;
+
+    @Setup
+    public void setUp() throws IOException {
+        int[] config = BenchmarkFixtures.parseBoard(board);
+        int cells = config[0] * config[0];
+        room = BenchmarkFixtures.roomWithMoves(config[0], config[1], cells * fillPercent / 100);
+        state = room.getGameState();
+        serializedRoom = serialize(room);
+        serializedState = serialize(state);
+    }
+
+    @Benchmark
+    public byte[] serializeGameState() throws IOException {
+        return serialize(state);
+    }
+
+    @Benchmark
+    public byte[] serializeGameRoom() throws IOException {
+        return serialize(room);
+    }
+
+    @Benchmark
+    public Object deserializeGameState() throws IOException, ClassNotFoundException {
+        return deserialize(serializedState);
+    }
+
+    @Benchmark
+    public Object deserializeGameRoom() throws IOException, ClassNotFoundException {
+        return deserialize(serializedRoom);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
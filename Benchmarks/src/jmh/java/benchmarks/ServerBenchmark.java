@@ -0,0 +1,118 @@
+package benchmarks;
+
+import controllers.GameServerImpl;
+import models.GameRoom;
+import models.Move;
+import models.Player;
+import models.RoomSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServerBenchmark {
+    private static final int[][] DRAW_SEQUENCE = {
+            {0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {2, 0}, {1, 2}, {2, 2}, {2, 1}
+    };
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+        @Param({"1000", "10000"})
+        public int roomCount;
+
+        GameServerImpl server;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Logger rootLogger = Logger.getLogger("");
+            rootLogger.setLevel(java.util.logging.Level.WARNING);
+            for (Handler handler : rootLogger.getHandlers()) {
+                handler.setLevel(java.util.logging.Level.WARNING);
+            }
+
+            if (System.getProperty("tictactoe.dataDir") == null) {
+                System.setProperty("tictactoe.dataDir", Files.createTempDirectory("tictactoe-bench").toString());
+            }
+            server = new GameServerImpl(Duration.ofSeconds(1), Duration.ofHours(1), Duration.ofHours(1));
+            for (int i = 0; i < roomCount; i++) {
+                Player owner = server.registerPlayer(new Player("owner-" + i));
+                UUID roomId = server.createRoom("room-" + i, owner);
+                if (i % 2 == 0) {
+                    Player opponent = server.registerPlayer(new Player("opponent-" + i));
+                    server.joinRoom(roomId, opponent);
+                    server.startGame(roomId);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws NoSuchObjectException {
+            UnicastRemoteObject.unexportObject(server, true);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class GameInProgress {
+        private Player playerX;
+        private Player playerO;
+        private UUID roomId;
+        private int moveIndex;
+
+        @Setup(Level.Trial)
+        public void setUp(ServerState state) throws RemoteException {
+            playerX = state.server.registerPlayer(new Player("bench-x-" + Thread.currentThread().getId()));
+            playerO = state.server.registerPlayer(new Player("bench-o-" + Thread.currentThread().getId()));
+            newGame(state.server);
+        }
+
+        void newGame(GameServerImpl server) throws RemoteException {
+            roomId = server.createRoom("bench-" + playerX.getName(), playerX);
+            server.joinRoom(roomId, playerO);
+            server.startGame(roomId);
+            moveIndex = 0;
+        }
+
+        Move nextMove() {
+            int[] cell = DRAW_SEQUENCE[moveIndex];
+            return new Move(cell[0], cell[1], moveIndex, roomId, moveIndex % 2 == 0 ? playerX : playerO);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<GameRoom> getActiveRooms(ServerState state) throws RemoteException {
+        return state.server.getActiveRooms();
+    }
+
+    @Benchmark
+    public ArrayList<RoomSummary> listWaitingRooms(ServerState state) throws RemoteException {
+        return state.server.listWaitingRooms(0, 20);
+    }
+
+    @Benchmark
+    public void makeMove(ServerState state, GameInProgress game) throws RemoteException {
+        state.server.makeMove(game.roomId, game.nextMove());
+        if (++game.moveIndex == DRAW_SEQUENCE.length) {
+            game.newGame(state.server);
+        }
+    }
+}
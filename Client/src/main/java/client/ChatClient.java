@@ -1,5 +1,8 @@
 package client;
 
+import protocol.ChatProtocol;
+import protocol.FrameCodec;
+
 import java.io.*;
 import java.nio.channels.*;
 import java.nio.*;
@@ -10,36 +13,74 @@ import java.util.logging.Logger;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ArrayBlockingQueue;
 
+/**
+ * Connection to the server's chat hub for one room. Everything sent is
+ * delivered to the other players connected to the same room.
+ *
+ * Sending only queues the encoded frame and wakes the selector thread, which
+ * writes everything queued in one gathering write and waits for
+ * {@code OP_WRITE} when the socket is full. A sender never blocks or spins on
+ * a slow connection; once {@value #MAX_PENDING_MESSAGES} messages are queued,
+ * further ones are dropped.
+ *
+ * Received messages are handed to the {@link MessageListener} on the
+ * selector thread as soon as they are decoded, or queued for
+ * {@link #receiveMessage()} if no listener is set. That queue keeps only the
+ * latest {@value #MAX_UNREAD_MESSAGES} messages. Delivery and setting the
+ * listener share one lock, so the listener is called by one thread at a time
+ * and sees messages in the order they arrived.
+ */
 public class ChatClient implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(ChatClient.class.getName());
-    private static final int BUFFER_SIZE = 1024;
     private static final int CONNECTION_TIMEOUT = 5000;
+    private static final int MAX_PENDING_MESSAGES = 256;
+    private static final int MAX_GATHER = 64;
+    private static final int MAX_UNREAD_MESSAGES = 256;
+
+    @FunctionalInterface
+    public interface MessageListener {
+        void onMessage(String message);
+    }
 
+    private final UUID roomId;
+    private final UUID senderId;
     private SocketChannel channel;
     private final AtomicBoolean isRunning;
     private final AtomicBoolean isConnected;
     private Thread selectorThread;
     private final ScheduledExecutorService scheduler;
     private Selector selector;
-    private ByteBuffer readBuffer;
-    private ByteBuffer writeBuffer;
-    private StringBuilder messageBuilder;
+    private final FrameCodec codec;
     private final Queue<String> messageQueue;
+    private final Queue<ByteBuffer> outbound;
+    private final AtomicBoolean flushRequested;
+    private final ByteBuffer[] gather;
+    private SelectionKey key;
+    private final Object deliveryLock;
+    private MessageListener listener;
 
-    public ChatClient() {
+    /**
+     * Chat in {@code roomId} as {@code senderId}; the hub does not send a
+     * rejoining sender its own earlier messages.
+     */
+    public ChatClient(UUID roomId, UUID senderId) {
+        this.roomId = roomId;
+        this.senderId = senderId;
         this.isRunning = new AtomicBoolean(false);
         this.isConnected = new AtomicBoolean(false);
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
-        this.readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-        this.writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-        this.messageBuilder = new StringBuilder();
-        this.messageQueue = new ConcurrentLinkedQueue<>();
+        this.codec = new FrameCodec(true);
+        this.messageQueue = new ArrayBlockingQueue<>(MAX_UNREAD_MESSAGES);
+        this.outbound = new ArrayBlockingQueue<>(MAX_PENDING_MESSAGES);
+        this.flushRequested = new AtomicBoolean(false);
+        this.gather = new ByteBuffer[MAX_GATHER];
+        this.deliveryLock = new Object();
     }
 
     public void connect(String host, int port) throws IOException {
-        if (channel != null && channel.isOpen()) {
+        if (channel != null) {
             disconnect();
         }
 
@@ -47,10 +88,16 @@ public class ChatClient implements AutoCloseable {
             selector = Selector.open();
             channel = SocketChannel.open();
             channel.configureBlocking(false);
-            
-            channel.connect(new InetSocketAddress(host, port));
-            
-            channel.register(selector, SelectionKey.OP_CONNECT | SelectionKey.OP_READ);
+            codec.clear();
+            outbound.clear();
+            outbound.add(FrameCodec.encode(ChatProtocol.join(roomId, senderId)));
+
+            if (channel.connect(new InetSocketAddress(host, port))) {
+                isConnected.set(true);
+                key = channel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else {
+                key = channel.register(selector, SelectionKey.OP_CONNECT);
+            }
             isRunning.set(true);
             
             selectorThread = new Thread(this::processEvents);
@@ -76,8 +123,9 @@ public class ChatClient implements AutoCloseable {
     private void processEvents() {
         while (isRunning.get()) {
             try {
-                if (selector.select(1000) == 0) {
-                    continue;
+                selector.select(1000);
+                if (flushRequested.getAndSet(false) && isConnected.get()) {
+                    flush();
                 }
 
                 Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
@@ -95,7 +143,12 @@ public class ChatClient implements AutoCloseable {
                     if (key.isReadable()) {
                         handleRead(key);
                     }
+                    if (key.isValid() && key.isWritable()) {
+                        flush();
+                    }
                 }
+            } catch (ClosedSelectorException e) {
+                return;
             } catch (IOException e) {
                 if (isRunning.get()) {
                     LOGGER.severe("Error in event processing: " + e.getMessage());
@@ -109,6 +162,7 @@ public class ChatClient implements AutoCloseable {
         SocketChannel channel = (SocketChannel) key.channel();
         try {
             if (channel.finishConnect()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
                 isConnected.set(true);
 //                LOGGER.info("Connection established");
             }
@@ -121,23 +175,14 @@ public class ChatClient implements AutoCloseable {
 
     private void handleRead(SelectionKey key) throws IOException {
         SocketChannel channel = (SocketChannel) key.channel();
-        readBuffer.clear();
         int read;
 
         try {
-            while ((read = channel.read(readBuffer)) > 0) {
-                readBuffer.flip();
-                while (readBuffer.hasRemaining()) {
-                    char c = (char) readBuffer.get();
-                    if (c == '\n') {
-                        String message = messageBuilder.toString();
-                        messageQueue.offer(message);
-                        messageBuilder.setLength(0);
-                    } else {
-                        messageBuilder.append(c);
-                    }
+            while ((read = codec.readFrom(channel)) > 0) {
+                String message;
+                while ((message = codec.nextMessage()) != null) {
+                    deliver(message);
                 }
-                readBuffer.clear();
             }
 
             if (read < 0) {
@@ -152,23 +197,74 @@ public class ChatClient implements AutoCloseable {
         }
     }
 
+    private void deliver(String message) {
+        synchronized (deliveryLock) {
+            if (listener == null) {
+                while (!messageQueue.offer(message)) {
+                    messageQueue.poll();
+                }
+                return;
+            }
+            notifyListener(message);
+        }
+    }
+
+    private void notifyListener(String message) {
+        try {
+            listener.onMessage(message);
+        } catch (RuntimeException e) {
+            LOGGER.warning("Chat listener failed: " + e.getMessage());
+        }
+    }
+
     private void handleConnectionFailure() {
         isConnected.set(false);
         LOGGER.warning("Connection failure detected");
     }
 
+    /**
+     * Writes as much of the queue as the socket takes in one call and asks
+     * for {@code OP_WRITE} if anything is left. Runs on the selector thread.
+     */
+    private void flush() throws IOException {
+        while (!outbound.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer frame : outbound) {
+                gather[count++] = frame;
+                if (count == gather.length) {
+                    break;
+                }
+            }
+            channel.write(gather, 0, count);
+            Arrays.fill(gather, 0, count, null);
+            int written = 0;
+            while (written < count && !outbound.peek().hasRemaining()) {
+                outbound.poll();
+                written++;
+            }
+            if (written < count) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
     public void sendMessage(String message) {
         if (channel != null && channel.isOpen() && isConnected.get()) {
+            ByteBuffer frame;
             try {
-                writeBuffer.clear();
-                writeBuffer.put((message + "\n").getBytes());
-                writeBuffer.flip();
-                while (writeBuffer.hasRemaining()) {
-                    channel.write(writeBuffer);
-                }
-            } catch (Exception e) {
-                LOGGER.severe("Error sending message: " + e.getMessage());
-                handleConnectionFailure();
+                frame = FrameCodec.encode(message);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Message not sent: " + e.getMessage());
+                return;
+            }
+            if (!outbound.offer(frame)) {
+                LOGGER.warning("Message not sent: too many messages waiting to be sent");
+                return;
+            }
+            if (flushRequested.compareAndSet(false, true)) {
+                selector.wakeup();
             }
         }
     }
@@ -196,12 +292,15 @@ public class ChatClient implements AutoCloseable {
             if (channel != null && channel.isOpen()) {
                 channel.close();
             }
-            if (selectorThread != null) {
+            if (selectorThread != null && selectorThread != Thread.currentThread()) {
                 selectorThread.interrupt();
+                selectorThread.join(1000);
             }
 //            LOGGER.info("Disconnected from chat server");
         } catch (IOException e) {
             LOGGER.severe("Error closing chat connections: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -214,6 +313,20 @@ public class ChatClient implements AutoCloseable {
         return isConnected.get();
     }
 
+    /**
+     * Pushes every message received from now on to the listener, starting
+     * with any that were queued while none was set.
+     */
+    public void setMessageListener(MessageListener listener) {
+        synchronized (deliveryLock) {
+            this.listener = listener;
+            String message;
+            while (listener != null && (message = messageQueue.poll()) != null) {
+                notifyListener(message);
+            }
+        }
+    }
+
     public String receiveMessage() {
         return messageQueue.poll();
     }
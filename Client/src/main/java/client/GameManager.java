@@ -7,28 +7,37 @@ import java.io.IOException;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class GameManager {
+    private static final long EVENT_FALLBACK_POLL_MS = 5000;
+    private static final long INPUT_POLL_MS = 100;
+    private static final int LOBBY_PAGE_SIZE = 20;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int HISTORY_PAGE_SIZE = 10;
+    private static final long NO_HISTORY = -1;
+
     private final GameServerInterface server;
+    private final String serverHost;
     private final GameUI ui;
     private Player currentPlayer;
     private ChatManager chatManager;
+    private RoomEventListener roomEvents;
+    private UUID subscribedRoomId;
+    private ScheduledExecutorService leaseRenewal;
     private final AtomicBoolean inChatMode = new AtomicBoolean(false);
 
     private class ChatManager implements Runnable {
         private final UUID roomId;
-        private final GameRoom room;
-        private final boolean isRoomOwner;
-        private ChatServer chatServer;
-        private ChatClient chatClient;
+        private volatile ChatClient chatClient;
         private final AtomicBoolean running = new AtomicBoolean(true);
         private final Thread chatThread;
 
-        public ChatManager(UUID roomId, GameRoom room, boolean isRoomOwner) {
+        public ChatManager(UUID roomId) {
             this.roomId = roomId;
-            this.room = room;
-            this.isRoomOwner = isRoomOwner;
             this.chatThread = new Thread(this);
         }
 
@@ -38,9 +47,6 @@ public class GameManager {
 
         public void stop() {
             running.set(false);
-            if (chatServer != null) {
-                chatServer.close();
-            }
             if (chatClient != null) {
                 chatClient.close();
             }
@@ -48,110 +54,35 @@ public class GameManager {
         }
 
         public void sendMessage(String message) {
-            if (chatServer != null) {
-                chatServer.sendMessage(message);
-            } else if (chatClient != null) {
+            if (chatClient != null) {
                 chatClient.sendMessage(message);
             }
         }
 
+        /**
+         * Connects and returns; from then on the client's selector thread
+         * displays each message the moment it arrives.
+         */
         @Override
         public void run() {
             try {
-                if (isRoomOwner) {
-                    setupChatServer();
-                } else {
-                    setupChatClient();
+                ChatClient client = new ChatClient(roomId, currentPlayer.getPlayerId());
+                client.setMessageListener(message -> ui.displayMessage("[CHAT] " + message));
+                client.connect(serverHost, server.getChatPort());
+                chatClient = client;
+                if (!running.get()) {
+                    client.close();
                 }
-
-                while (running.get()) {
-                    String message = null;
-                    if (chatServer != null) {
-                        message = chatServer.receiveMessage();
-                    } else if (chatClient != null) {
-                        message = chatClient.receiveMessage();
-                    }
-                    
-                    if (message != null) {
-                        ui.displayMessage("[CHAT] " + message);
-                    }
-                    
-                    Thread.sleep(250);
-                }
-            } catch (IOException | InterruptedException e) {
+            } catch (IOException e) {
                 ui.displayError("Chat error: " + e.getMessage());
-            } finally {
                 stop();
             }
         }
-
-        private void setupChatServer() throws IOException, InterruptedException {
-            chatServer = new ChatServer(roomId);
-            chatServer.start();
-            int serverPort = chatServer.getPort();
-            try {
-                server.setOwnerPort(roomId, room.getOwner(), serverPort);
-                ui.displayMessage("Chat server started on port " + serverPort + ", waiting for opponent to connect...");
-                
-                int waitAttempts = 0;
-                while (!chatServer.isConnected() && waitAttempts < 30 && running.get()) {
-                    Thread.sleep(1000);
-                    waitAttempts++;
-                }
-                
-                if (!chatServer.isConnected() && running.get()) {
-                    throw new IOException("No client connected within timeout period");
-                }
-            } catch (RemoteException e) {
-                throw new IOException("Failed to set up chat server: " + e.getMessage());
-            }
-        }
-
-        private void setupChatClient() throws IOException, InterruptedException {
-            Thread.sleep(2000);
-            
-            String ownerIP = null;
-            int ownerPort = -1;
-            int retries = 0;
-            boolean connected = false;
-            
-            while (retries < 30 && !connected && running.get()) {
-                try {
-                    ownerIP = server.getOpponentIP(roomId, currentPlayer);
-                    ownerPort = server.getPort(roomId, room.getOwner());
-                    
-                    if (ownerIP != null && ownerPort > 0) {
-                        ui.displayMessage("Found owner's chat server at " + ownerIP + ":" + ownerPort);
-                        chatClient = new ChatClient();
-                        try {
-                            chatClient.connect(ownerIP, ownerPort);
-                            connected = true;
-                            ui.displayMessage("Successfully connected to chat server!");
-                            break;
-                        } catch (IOException e) {
-                            ui.displayMessage("Failed to connect to chat server, will retry...");
-                        }
-                    } else {
-                        ui.displayMessage("Waiting for owner to start chat server... (Attempt " + (retries + 1) + "/30)");
-                    }
-                    
-                    Thread.sleep(1000);
-                    retries++;
-                } catch (RemoteException e) {
-                    ui.displayMessage("Error getting owner's chat info, will retry... (Attempt " + (retries + 1) + "/30)");
-                    Thread.sleep(1000);
-                    retries++;
-                }
-            }
-            
-            if (!connected && running.get()) {
-                throw new IOException("Could not connect to owner's chat server after 30 attempts");
-            }
-        }
     }
 
-    public GameManager(GameServerInterface server, GameUI ui) {
+    public GameManager(GameServerInterface server, String serverHost, GameUI ui) {
         this.server = server;
+        this.serverHost = serverHost;
         this.ui = ui;
     }
 
@@ -159,33 +90,57 @@ public class GameManager {
         while (true) {
             String name = ui.getPlayerName();
             if (!name.isEmpty()) {
-                currentPlayer = new Player(name);
-                server.registerPlayer(currentPlayer);
+                currentPlayer = server.registerPlayer(new Player(name));
                 ui.displayMessage("Successfully logged in as " + name);
                 break;
             }
         }
+        startLeaseRenewal(currentPlayer);
+    }
+
+    private void startLeaseRenewal(Player player) throws RemoteException {
+        long renewalMillis = Math.max(1, server.renewLease(player.getPlayerId()) / 3);
+        leaseRenewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaseRenewal.scheduleAtFixedRate(() -> renewLease(player), renewalMillis, renewalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void renewLease(Player player) {
+        try {
+            server.renewLease(player.getPlayerId());
+        } catch (RemoteException e) {
+            // The lease ran out, e.g. after a network outage; registering again restores the session.
+            try {
+                server.registerPlayer(new Player(player.getName(), player.getPlayerId()));
+            } catch (RemoteException ignored) {
+            }
+        }
     }
 
     public void createRoom() throws RemoteException {
         String roomName = ui.getRoomName();
-        UUID roomId = server.createRoom(roomName, currentPlayer);
+        int boardSize = ui.getBoardSize();
+        int winningLength = ui.getWinningLength(boardSize);
+        UUID roomId = server.createRoom(roomName, currentPlayer, boardSize, winningLength);
         ui.displayMessage("Room created successfully!");
         waitForPlayers(roomId);
     }
 
     public void joinRoom() throws RemoteException {
-        ArrayList<GameRoom> allRooms = server.getActiveRooms();
-        ArrayList<GameRoom> availableRooms = new ArrayList<>();
-        
-        for (GameRoom room : allRooms) {
-            if (room.getRoomStatus() == GameRoom.RoomStatus.WAITING) {
-                availableRooms.add(room);
+        int offset = 0;
+        String roomId;
+        while (true) {
+            ArrayList<RoomSummary> availableRooms = server.listWaitingRooms(offset, LOBBY_PAGE_SIZE);
+            ui.displayWaitingRooms(availableRooms, offset);
+            roomId = ui.getRoomIdToJoin(availableRooms, offset, availableRooms.size() == LOBBY_PAGE_SIZE);
+            if (!roomId.equals(GameUI.NEXT_PAGE)) {
+                break;
             }
+            offset += LOBBY_PAGE_SIZE;
         }
-        
-        ui.displayActiveRooms(availableRooms);
-        String roomId = ui.getRoomIdToJoin(availableRooms);
         if (roomId.isEmpty()) {
             ui.displayError("Invalid room selection.");
             return;
@@ -200,16 +155,111 @@ public class GameManager {
         }
     }
 
+    public void quickMatch() throws RemoteException {
+        ui.displayMessage("Looking for an opponent...");
+        UUID roomId = server.quickMatch(currentPlayer);
+        ui.displayMessage("Opponent found!");
+        playGame(roomId);
+    }
+
+    public void playAgainstBot() throws RemoteException {
+        int boardSize = ui.getBoardSize();
+        int winningLength = ui.getWinningLength(boardSize);
+        UUID roomId = server.playAgainstBot(currentPlayer, boardSize, winningLength);
+        ui.displayMessage("You play X and move first.");
+        playGame(roomId);
+    }
+
+    public void watchGame() throws RemoteException {
+        int offset = 0;
+        String roomId;
+        while (true) {
+            ArrayList<RoomSummary> liveRooms = server.listRooms(GameRoom.RoomStatus.PLAYING, offset, LOBBY_PAGE_SIZE);
+            ui.displayLiveRooms(liveRooms, offset);
+            roomId = ui.getRoomIdToWatch(liveRooms, offset, liveRooms.size() == LOBBY_PAGE_SIZE);
+            if (!roomId.equals(GameUI.NEXT_PAGE)) {
+                break;
+            }
+            offset += LOBBY_PAGE_SIZE;
+        }
+        if (roomId.isEmpty()) {
+            ui.displayError("Invalid room selection.");
+            return;
+        }
+
+        UUID gameRoomID = UUID.fromString(roomId);
+        SpectatorView view = new SpectatorView();
+        try {
+            server.watchRoom(gameRoomID, view);
+            ui.displayMessage("Watching the game, press Enter to stop.");
+            long seenVersion = view.getVersion();
+            while (ui.getInputIfAvailable(false, null) == null) {
+                long version = view.awaitChange(seenVersion, INPUT_POLL_MS);
+                if (version == seenVersion) {
+                    continue;
+                }
+                seenVersion = version;
+                GameState state = view.getState();
+                if (state == null) {
+                    view.onSnapshot(gameRoomID, server.getGameState(gameRoomID));
+                    continue;
+                }
+                ui.displayBoard(state);
+                if (state.isFinished()) {
+                    ui.displaySpectatedResult(state);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                server.stopWatching(gameRoomID, view);
+            } catch (RemoteException e) {
+                ui.displayError("Error leaving the game: " + e.getMessage());
+            }
+            view.close();
+        }
+    }
+
     public void viewStats() {
         try {
             currentPlayer = server.getUpdatedPlayer(currentPlayer.getPlayerId());
             PlayerStats currentPlayerStats = currentPlayer.getPlayerStats();
-            ui.displayPlayerStats(currentPlayerStats);
+            ui.displayPlayerStats(currentPlayerStats, server.getRank(currentPlayer.getPlayerId()));
         } catch (RemoteException e) {
             ui.displayError("Error getting stats from server: " + e.getMessage());
         }
     }
 
+    public void viewLeaderboard() {
+        try {
+            ui.displayLeaderboard(server.getTopPlayers(LEADERBOARD_SIZE));
+        } catch (RemoteException e) {
+            ui.displayError("Error getting leaderboard from server: " + e.getMessage());
+        }
+    }
+
+    public void viewGameHistory() throws RemoteException {
+        int offset = 0;
+        long before = NO_HISTORY;
+        while (true) {
+            ArrayList<GameHistoryEntry> games =
+                    server.getGameHistory(currentPlayer.getPlayerId(), before, HISTORY_PAGE_SIZE);
+            ui.displayGameHistory(games, offset, currentPlayer);
+            String choice = ui.getGameToReplay(games, offset, games.size() == HISTORY_PAGE_SIZE);
+            if (choice.equals(GameUI.NEXT_PAGE)) {
+                offset += games.size();
+                before = games.get(games.size() - 1).getHistoryId();
+            } else if (choice.isEmpty()) {
+                return;
+            } else {
+                ui.displayReplay(server.replayGame(Long.parseLong(choice)));
+                return;
+            }
+        }
+    }
+
     public ArrayList<GameRoom> getActiveRooms() throws RemoteException {
         return server.getActiveRooms();
     }
@@ -217,17 +267,25 @@ public class GameManager {
     private void waitForPlayers(UUID roomId) {
         try {
             ui.displayMessage("Waiting for another player to join...");
+            RoomEventListener events = subscribe(roomId);
+            long seenVersion = events.getVersion();
             while (true) {
                 GameRoom room = server.getRoomInfo(roomId);
+                if (room == null) {
+                    ui.displayError("Room is no longer available.");
+                    unsubscribe();
+                    break;
+                }
                 if (room.isRoomFull()) {
                     server.startGame(roomId);
                     playGame(roomId);
                     break;
                 }
-                Thread.sleep(1000);
+                seenVersion = events.awaitChange(seenVersion, EVENT_FALLBACK_POLL_MS);
             }
         } catch (RemoteException | InterruptedException e) {
             ui.displayError("Error while waiting for players: " + e.getMessage());
+            unsubscribe();
         }
     }
 
@@ -258,7 +316,7 @@ public class GameManager {
     }
 
     private void handleUserInput(UUID roomId, GameState state) throws RemoteException {
-        String input = ui.getUserInput(inChatMode.get(), state.getCurrentPlayerTurn());
+        String input = ui.getUserInput(inChatMode.get(), state.getCurrentPlayerTurn(), state.getBoardSize());
 
         if (input.equals("/chat")) {
             inChatMode.set(true);
@@ -278,26 +336,42 @@ public class GameManager {
     private void playGame(UUID roomId) {
         try {
             ui.displayMessage("Waiting for game to start...");
+            RoomEventListener events = subscribe(roomId);
+            long seenVersion = events.getVersion();
             GameRoom room = null;
             while (true) {
                 room = server.getRoomInfo(roomId);
+                if (room == null) {
+                    ui.displayError("Room is no longer available.");
+                    cleanup();
+                    return;
+                }
                 if (room.getRoomStatus() == GameRoom.RoomStatus.PLAYING) {
                     break;
                 }
-                Thread.sleep(1000);
+                seenVersion = events.awaitChange(seenVersion, EVENT_FALLBACK_POLL_MS);
             }
 
-            boolean isRoomOwner = currentPlayer.equals(room.getGameState().getPlayerX());
-            
-            chatManager = new ChatManager(roomId, room, isRoomOwner);
+            chatManager = new ChatManager(roomId);
             chatManager.start();
 
             ui.displayMessage("\nGame started! Use /chat to enter chat mode and /move to enter move mode");
             
             int lastMoveCount = -1;
+            GameState state = room.getGameState();
+            boolean refresh = true;
+            long stateVersion = -1;
+            long lastFetch = 0;
             
             while (true) {
-                GameState state = server.getGameState(roomId);
+                long currentVersion = events.getVersion();
+                if (refresh || currentVersion != stateVersion
+                        || System.currentTimeMillis() - lastFetch >= EVENT_FALLBACK_POLL_MS) {
+                    state = syncGameState(roomId, state);
+                    refresh = false;
+                    stateVersion = currentVersion;
+                    lastFetch = System.currentTimeMillis();
+                }
                 
                 if (state.isFinished()) {
                     if (!inChatMode.get()) {
@@ -318,6 +392,7 @@ public class GameManager {
                 
                 if (state.getCurrentPlayerTurn() != null && state.getCurrentPlayerTurn().equals(currentPlayer)) {
                     handleUserInput(roomId, state);
+                    refresh = true;
                 } else {
                     if (!inChatMode.get() && stateChanged) {
                         ui.displayWaitingForMove(state.getCurrentPlayerTurn());
@@ -338,7 +413,7 @@ public class GameManager {
                         }
                     }
                     
-                    Thread.sleep(100);
+                    events.awaitChange(stateVersion, INPUT_POLL_MS);
                 }
             }
         } catch (RemoteException | InterruptedException e) {
@@ -347,14 +422,53 @@ public class GameManager {
         }
     }
 
+    private GameState syncGameState(UUID roomId, GameState state) throws RemoteException {
+        GameStateDelta delta = server.getGameStateSince(roomId, state.getMoves().size());
+        try {
+            state.applyDelta(delta);
+            return state;
+        } catch (IllegalStateException e) {
+            return server.getGameState(roomId);
+        }
+    }
+
+    private RoomEventListener subscribe(UUID roomId) throws RemoteException {
+        if (roomEvents != null && roomId.equals(subscribedRoomId)) {
+            return roomEvents;
+        }
+        unsubscribe();
+        roomEvents = new RoomEventListener();
+        subscribedRoomId = roomId;
+        server.addGameEventListener(roomId, roomEvents);
+        return roomEvents;
+    }
+
+    private void unsubscribe() {
+        if (roomEvents == null) {
+            return;
+        }
+        try {
+            server.removeGameEventListener(subscribedRoomId, roomEvents);
+        } catch (RemoteException e) {
+            ui.displayError("Error unsubscribing from room events: " + e.getMessage());
+        }
+        roomEvents.close();
+        roomEvents = null;
+        subscribedRoomId = null;
+    }
+
     private void cleanup() {
         if (chatManager != null) {
             chatManager.stop();
             chatManager = null;
         }
+        unsubscribe();
     }
 
     public void exit() throws RemoteException {
+        if (leaseRenewal != null) {
+            leaseRenewal.shutdownNow();
+        }
         server.unregisterPlayer(currentPlayer);
         cleanup();
     }
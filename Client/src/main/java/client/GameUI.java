@@ -4,9 +4,12 @@ import models.*;
 
 import java.util.Scanner;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class GameUI {
+    public static final String NEXT_PAGE = "next";
+
     private final Scanner scanner;
 
     public GameUI() {
@@ -17,9 +20,14 @@ public class GameUI {
         System.out.println("\n=== Main Menu ===");
         System.out.println("1. Create new game room");
         System.out.println("2. Join existing room");
-        System.out.println("3. View active rooms");
-        System.out.println("4. View my stats");
-        System.out.println("5. Exit");
+        System.out.println("3. Quick match");
+        System.out.println("4. Play against the server");
+        System.out.println("5. Watch a game");
+        System.out.println("6. View active rooms");
+        System.out.println("7. View my stats");
+        System.out.println("8. View leaderboard");
+        System.out.println("9. View game history");
+        System.out.println("10. Exit");
         System.out.print("Choose an option: ");
     }
 
@@ -37,14 +45,52 @@ public class GameUI {
         return scanner.nextLine().trim();
     }
 
-    public String getRoomIdToJoin(ArrayList<GameRoom> rooms) {
+    public int getBoardSize() {
+        System.out.print("Enter board size (press Enter for " + GameState.DEFAULT_BOARD_SIZE + "): ");
+        return parseOrDefault(scanner.nextLine().trim(), GameState.DEFAULT_BOARD_SIZE);
+    }
+
+    public int getWinningLength(int boardSize) {
+        int defaultLength = Math.min(boardSize, 5);
+        if (boardSize == GameState.DEFAULT_BOARD_SIZE) {
+            return GameState.DEFAULT_WINNING_LENGTH;
+        }
+        System.out.print("Enter number in a row needed to win (press Enter for " + defaultLength + "): ");
+        return parseOrDefault(scanner.nextLine().trim(), defaultLength);
+    }
+
+    private int parseOrDefault(String input, int defaultValue) {
+        if (input.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public String getRoomIdToJoin(List<RoomSummary> rooms, int offset, boolean hasNextPage) {
+        return chooseRoom(rooms, offset, hasNextPage, "join");
+    }
+
+    public String getRoomIdToWatch(List<RoomSummary> rooms, int offset, boolean hasNextPage) {
+        return chooseRoom(rooms, offset, hasNextPage, "watch");
+    }
+
+    private String chooseRoom(List<RoomSummary> rooms, int offset, boolean hasNextPage, String action) {
         if (rooms.isEmpty()) {
             return "";
         }
-        System.out.print("Enter room number to join: ");
+        System.out.print(hasNextPage
+                ? "Enter room number to " + action + " or 'n' for the next page: "
+                : "Enter room number to " + action + ": ");
         String input = scanner.nextLine().trim();
+        if (hasNextPage && input.equalsIgnoreCase("n")) {
+            return NEXT_PAGE;
+        }
         try {
-            int choice = Integer.parseInt(input);
+            int choice = Integer.parseInt(input) - offset;
             if (choice > 0 && choice <= rooms.size()) {
                 return rooms.get(choice - 1).getGameRoomID().toString();
             }
@@ -53,6 +99,62 @@ public class GameUI {
         return "";
     }
 
+    public void displayGameHistory(List<GameHistoryEntry> games, int offset, Player currentPlayer) {
+        if (offset == 0) {
+            System.out.println("\n=== Game History ===");
+        }
+        if (games.isEmpty()) {
+            System.out.println(offset == 0 ? "You have not finished any games yet." : "No more games.");
+            return;
+        }
+        int count = offset;
+        for (GameHistoryEntry game : games) {
+            count++;
+            boolean playedX = game.getPlayerXId().equals(currentPlayer.getPlayerId());
+            String opponent = playedX ? game.getPlayerOName() : game.getPlayerXName();
+            String result = game.isDraw() ? "Draw"
+                    : game.getWinnerId().equals(currentPlayer.getPlayerId()) ? "Won" : "Lost";
+            System.out.printf("%d. %-4s vs %s (%dx%d, %d moves)%n", count, result, opponent,
+                    game.getBoardSize(), game.getBoardSize(), game.getMoveCount());
+        }
+    }
+
+    public String getGameToReplay(List<GameHistoryEntry> games, int offset, boolean hasNextPage) {
+        if (games.isEmpty()) {
+            return "";
+        }
+        System.out.print(hasNextPage
+                ? "Enter game number to replay, 'n' for the next page or Enter to go back: "
+                : "Enter game number to replay or Enter to go back: ");
+        String input = scanner.nextLine().trim();
+        if (hasNextPage && input.equalsIgnoreCase("n")) {
+            return NEXT_PAGE;
+        }
+        try {
+            int choice = Integer.parseInt(input) - offset;
+            if (choice > 0 && choice <= games.size()) {
+                return String.valueOf(games.get(choice - 1).getHistoryId());
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        return "";
+    }
+
+    public void displayReplay(GameState game) {
+        GameState replay = new GameState(game.getGameID(), game.getBoardSize(), game.getWinningLength());
+        replay.setPlayerX(game.getPlayerX());
+        replay.setPlayerO(game.getPlayerO());
+        System.out.println("\n=== Replay: " + game.getPlayerX().getName() + " (X) vs "
+                + game.getPlayerO().getName() + " (O) ===");
+        for (Move move : game.getMoves()) {
+            replay.addMove(move);
+            System.out.printf("Move %d: %s plays %d %d%n", move.getMoveID() + 1, move.getPlayer().getName(),
+                    move.getRow() + 1, move.getColumn() + 1);
+            displayBoard(replay);
+        }
+        System.out.println(game.getWinner() != null ? game.getWinner().getName() + " won." : "The game was a draw.");
+    }
+
     public void displayActiveRooms(Iterable<GameRoom> rooms) {
         System.out.println("\n=== Active Rooms ===");
         int count = 0;
@@ -70,18 +172,64 @@ public class GameUI {
         }
     }
 
-    public void displayPlayerStats(PlayerStats playerStats) {
+    public void displayWaitingRooms(List<RoomSummary> rooms, int offset) {
+        System.out.println("\n=== Waiting Rooms ===");
+        displayRoomSummaries(rooms, offset);
+    }
+
+    public void displayLiveRooms(List<RoomSummary> rooms, int offset) {
+        System.out.println("\n=== Games in Progress ===");
+        displayRoomSummaries(rooms, offset);
+    }
+
+    private void displayRoomSummaries(List<RoomSummary> rooms, int offset) {
+        if (rooms.isEmpty()) {
+            System.out.println("No active rooms available.");
+            return;
+        }
+        int count = offset;
+        for (RoomSummary room : rooms) {
+            count++;
+            System.out.printf("%d. Room: %s (Owner: %s, Players: %d/2, Board: %dx%d, %d in a row)%n",
+                    count, room.getGameRoomName(), room.getOwnerName(), room.getPlayerCount(),
+                    room.getBoardSize(), room.getBoardSize(), room.getWinningLength());
+        }
+    }
+
+    public void displayPlayerStats(PlayerStats playerStats, int rank) {
         System.out.println("\n=== Player Stats ===");
         System.out.println(playerStats.toString());
+        System.out.println(rank > 0 ? "Rank: " + rank : "Rank: unranked");
+    }
+
+    public void displayLeaderboard(List<LeaderboardEntry> entries) {
+        System.out.println("\n=== Leaderboard ===");
+        if (entries.isEmpty()) {
+            System.out.println("No games have been played yet.");
+            return;
+        }
+        for (LeaderboardEntry entry : entries) {
+            System.out.printf("%3d. %-20s %5d (W: %d, L: %d, D: %d)%n",
+                    entry.getRank(), entry.getPlayerName(), entry.getScore(),
+                    entry.getWins(), entry.getLosses(), entry.getDraws());
+        }
     }
 
     public void displayBoard(GameState state) {
         char[][] board = state.getBoard();
+        int size = state.getBoardSize();
+        int width = String.valueOf(size).length();
+        String cellFormat = "%" + width + "s";
         System.out.println("\nCurrent board:");
-        System.out.println("  1 2 3");
-        for (int i = 0; i < 3; i++) {
-            System.out.print((i + 1) + " ");
-            for (int j = 0; j < 3; j++) {
+        System.out.print(" ".repeat(width + 1));
+        for (int j = 0; j < size; j++) {
+            System.out.printf(cellFormat, j + 1);
+            if (j < size - 1) System.out.print(" ");
+        }
+        System.out.println();
+        for (int i = 0; i < size; i++) {
+            System.out.printf(cellFormat + " ", i + 1);
+            for (int j = 0; j < size; j++) {
                 char symbol = board[i][j];
                 if (symbol == ' ') {
                     for (Move move : state.getMoves()) {
@@ -91,11 +239,13 @@ public class GameUI {
                         }
                     }
                 }
-                System.out.print(symbol);
-                if (j < 2) System.out.print("|");
+                System.out.printf(cellFormat, symbol);
+                if (j < size - 1) System.out.print("|");
             }
             System.out.println();
-            if (i < 2) System.out.println("  -+-+-");
+            if (i < size - 1) {
+                System.out.println(" ".repeat(width + 1) + String.join("+", Collections.nCopies(size, "-".repeat(width))));
+            }
         }
         System.out.println();
     }
@@ -112,11 +262,20 @@ public class GameUI {
         }
     }
 
-    public String getUserInput(boolean inChatMode, Player currentPlayerTurn) {
+    public void displaySpectatedResult(GameState state) {
+        if (state.getWinner() != null) {
+            System.out.println("Game over. " + state.getWinner().getName() + " won!");
+        } else {
+            System.out.println("Game ended in a draw!");
+        }
+    }
+
+    public String getUserInput(boolean inChatMode, Player currentPlayerTurn, int boardSize) {
         if (currentPlayerTurn != null && !inChatMode) {
             System.out.println("Your turn!");
         }
-        System.out.print(inChatMode ? "You: " : "Enter your move (row[1-3] column[1-3]) or command: ");
+        System.out.print(inChatMode ? "You: " : String.format(
+                "Enter your move (row[1-%d] column[1-%d]) or command: ", boardSize, boardSize));
         return scanner.nextLine().trim();
     }
 
@@ -0,0 +1,71 @@
+package client;
+
+import interfaces.GameEventListener;
+import models.Move;
+import models.Player;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.UUID;
+
+public class RoomEventListener extends UnicastRemoteObject implements GameEventListener {
+    private final Object monitor = new Object();
+    private long version;
+
+    public RoomEventListener() throws RemoteException {
+        super();
+    }
+
+    @Override
+    public void onPlayerJoined(UUID gameRoomID, Player player) {
+        signal();
+    }
+
+    @Override
+    public void onGameStarted(UUID gameRoomID) {
+        signal();
+    }
+
+    @Override
+    public void onMoveMade(UUID gameRoomID, Move move) {
+        signal();
+    }
+
+    @Override
+    public void onGameEnded(UUID gameRoomID, Player winner) {
+        signal();
+    }
+
+    public long getVersion() {
+        synchronized (monitor) {
+            return version;
+        }
+    }
+
+    public long awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (monitor) {
+            long remaining = timeoutMillis;
+            while (version == seenVersion && remaining > 0) {
+                monitor.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return version;
+        }
+    }
+
+    public void close() {
+        try {
+            UnicastRemoteObject.unexportObject(this, true);
+        } catch (NoSuchObjectException ignored) {
+        }
+    }
+
+    private void signal() {
+        synchronized (monitor) {
+            version++;
+            monitor.notifyAll();
+        }
+    }
+}
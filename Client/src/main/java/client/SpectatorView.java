@@ -0,0 +1,78 @@
+package client;
+
+import interfaces.SpectatorListener;
+import models.GameState;
+import models.GameStateDelta;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.UUID;
+
+/**
+ * Local copy of a watched game, kept current by the server's spectator
+ * updates. A delta that does not continue the local copy leaves the view
+ * without a state until the next snapshot or an explicit refresh.
+ */
+public class SpectatorView extends UnicastRemoteObject implements SpectatorListener {
+    private final Object monitor = new Object();
+    private GameState state;
+    private long version;
+
+    public SpectatorView() throws RemoteException {
+        super();
+    }
+
+    @Override
+    public void onSnapshot(UUID gameRoomID, GameState snapshot) {
+        synchronized (monitor) {
+            state = snapshot;
+            version++;
+            monitor.notifyAll();
+        }
+    }
+
+    @Override
+    public void onUpdate(UUID gameRoomID, GameStateDelta delta) {
+        synchronized (monitor) {
+            if (state != null && delta.getFromMoveCount() == state.getMoves().size()) {
+                state.applyDelta(delta);
+            } else {
+                state = null;
+            }
+            version++;
+            monitor.notifyAll();
+        }
+    }
+
+    public GameState getState() {
+        synchronized (monitor) {
+            return state;
+        }
+    }
+
+    public long getVersion() {
+        synchronized (monitor) {
+            return version;
+        }
+    }
+
+    public long awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (monitor) {
+            long remaining = timeoutMillis;
+            while (version == seenVersion && remaining > 0) {
+                monitor.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return version;
+        }
+    }
+
+    public void close() {
+        try {
+            UnicastRemoteObject.unexportObject(this, true);
+        } catch (NoSuchObjectException ignored) {
+        }
+    }
+}
@@ -10,14 +10,15 @@ import java.util.logging.Logger;
 
 public class TicTacToeClient {
     private static final Logger LOGGER = Logger.getLogger(TicTacToeClient.class.getName());
+    private static final String SERVER_HOST = "localhost";
     private final GameManager gameManager;
     private final GameUI ui;
 
     public TicTacToeClient() throws RemoteException, NotBoundException {
-        Registry registry = LocateRegistry.getRegistry("localhost", 1099);
+        Registry registry = LocateRegistry.getRegistry(SERVER_HOST, 1099);
         GameServerInterface server = (GameServerInterface) registry.lookup("TicTacToeServer");
         this.ui = new GameUI();
-        this.gameManager = new GameManager(server, ui);
+        this.gameManager = new GameManager(server, SERVER_HOST, ui);
     }
 
     public void start() {
@@ -38,9 +39,14 @@ public class TicTacToeClient {
                 switch (choice) {
                     case "1" -> gameManager.createRoom();
                     case "2" -> gameManager.joinRoom();
-                    case "3" -> ui.displayActiveRooms(gameManager.getActiveRooms());
-                    case "4" -> gameManager.viewStats();
-                    case "5" -> {
+                    case "3" -> gameManager.quickMatch();
+                    case "4" -> gameManager.playAgainstBot();
+                    case "5" -> gameManager.watchGame();
+                    case "6" -> ui.displayActiveRooms(gameManager.getActiveRooms());
+                    case "7" -> gameManager.viewStats();
+                    case "8" -> gameManager.viewLeaderboard();
+                    case "9" -> gameManager.viewGameHistory();
+                    case "10" -> {
                         gameManager.exit();
                         ui.displayMessage("Goodbye!");
                         return;
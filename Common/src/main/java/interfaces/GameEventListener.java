@@ -0,0 +1,19 @@
+package interfaces;
+
+import models.Move;
+import models.Player;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.UUID;
+
+public interface GameEventListener extends Remote {
+
+    void onPlayerJoined(UUID gameRoomID, Player player) throws RemoteException;
+
+    void onGameStarted(UUID gameRoomID) throws RemoteException;
+
+    void onMoveMade(UUID gameRoomID, Move move) throws RemoteException;
+
+    void onGameEnded(UUID gameRoomID, Player winner) throws RemoteException;
+}
@@ -9,29 +9,59 @@ import java.util.UUID;
 
 public interface GameServerInterface extends Remote {
 
-    void registerPlayer(Player player) throws RemoteException;
+    Player registerPlayer(Player player) throws RemoteException;
 
     void unregisterPlayer(Player player) throws RemoteException;
 
+    /**
+     * Keeps the player's session alive and returns the lease length in
+     * milliseconds; a client that stops renewing is treated as gone.
+     */
+    long renewLease(UUID playerId) throws RemoteException;
+
     UUID createRoom(String roomName, Player ownerPlayer) throws RemoteException;
 
+    UUID createRoom(String roomName, Player ownerPlayer, int boardSize, int winningLength) throws RemoteException;
+
     void joinRoom(UUID gameRoomID, Player player) throws RemoteException;
 
+    UUID quickMatch(Player player) throws RemoteException;
+
+    UUID playAgainstBot(Player player, int boardSize, int winningLength) throws RemoteException;
+
     void startGame(UUID gameRoomID) throws RemoteException;
 
     void makeMove(UUID gameRoomID, Move move) throws RemoteException;
 
     GameState getGameState(UUID gameID) throws RemoteException;
 
+    GameStateDelta getGameStateSince(UUID gameID, int moveCount) throws RemoteException;
+
     ArrayList<GameRoom> getActiveRooms() throws RemoteException;
 
-    GameRoom getRoomInfo(UUID roomID) throws RemoteException;
+    ArrayList<RoomSummary> listWaitingRooms(int offset, int limit) throws RemoteException;
 
-    String getOpponentIP(UUID roomId, Player player) throws RemoteException;
+    ArrayList<RoomSummary> listRooms(GameRoom.RoomStatus status, int offset, int limit) throws RemoteException;
 
-    int getPort(UUID gameRoomID, Player player) throws RemoteException;
+    GameRoom getRoomInfo(UUID roomID) throws RemoteException;
 
-    void setOwnerPort(UUID gameRoomID, Player player, int port) throws RemoteException;
+    int getChatPort() throws RemoteException;
 
     Player getUpdatedPlayer(UUID playerId) throws RemoteException;
+
+    ArrayList<LeaderboardEntry> getTopPlayers(int count) throws RemoteException;
+
+    int getRank(UUID playerId) throws RemoteException;
+
+    ArrayList<GameHistoryEntry> getGameHistory(UUID playerId, long beforeHistoryId, int limit) throws RemoteException;
+
+    GameState replayGame(long historyId) throws RemoteException;
+
+    void addGameEventListener(UUID gameRoomID, GameEventListener listener) throws RemoteException;
+
+    void removeGameEventListener(UUID gameRoomID, GameEventListener listener) throws RemoteException;
+
+    void watchRoom(UUID gameRoomID, SpectatorListener listener) throws RemoteException;
+
+    void stopWatching(UUID gameRoomID, SpectatorListener listener) throws RemoteException;
 }
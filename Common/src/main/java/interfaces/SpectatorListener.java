@@ -0,0 +1,22 @@
+package interfaces;
+
+import models.GameState;
+import models.GameStateDelta;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.UUID;
+
+public interface SpectatorListener extends Remote {
+
+    /**
+     * Replaces the spectator's view; sent when watching starts and whenever
+     * the spectator fell too far behind to be sent the missed moves.
+     */
+    void onSnapshot(UUID gameRoomID, GameState state) throws RemoteException;
+
+    /**
+     * Every move since the previous update, in one batch.
+     */
+    void onUpdate(UUID gameRoomID, GameStateDelta delta) throws RemoteException;
+}
@@ -0,0 +1,84 @@
+package models;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+public final class GameHistoryEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long historyId;
+    private final UUID gameID;
+    private final UUID playerXId;
+    private final String playerXName;
+    private final UUID playerOId;
+    private final String playerOName;
+    private final UUID winnerId;
+    private final int boardSize;
+    private final int winningLength;
+    private final int moveCount;
+    private final long finishedAtMillis;
+
+    public GameHistoryEntry(long historyId, UUID gameID, UUID playerXId, String playerXName,
+                            UUID playerOId, String playerOName, UUID winnerId,
+                            int boardSize, int winningLength, int moveCount, long finishedAtMillis) {
+        this.historyId = historyId;
+        this.gameID = gameID;
+        this.playerXId = playerXId;
+        this.playerXName = playerXName;
+        this.playerOId = playerOId;
+        this.playerOName = playerOName;
+        this.winnerId = winnerId;
+        this.boardSize = boardSize;
+        this.winningLength = winningLength;
+        this.moveCount = moveCount;
+        this.finishedAtMillis = finishedAtMillis;
+    }
+
+    public long getHistoryId() {
+        return historyId;
+    }
+
+    public UUID getGameID() {
+        return gameID;
+    }
+
+    public UUID getPlayerXId() {
+        return playerXId;
+    }
+
+    public String getPlayerXName() {
+        return playerXName;
+    }
+
+    public UUID getPlayerOId() {
+        return playerOId;
+    }
+
+    public String getPlayerOName() {
+        return playerOName;
+    }
+
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    public boolean isDraw() {
+        return winnerId == null;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getWinningLength() {
+        return winningLength;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public long getFinishedAtMillis() {
+        return finishedAtMillis;
+    }
+}
@@ -1,9 +1,12 @@
 package models;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.UUID;
 
-public class GameRoom implements Serializable {
+public class GameRoom implements Externalizable {
     private static final long serialVersionUID = 1L;
     
     public enum RoomStatus {
@@ -12,21 +15,28 @@ public class GameRoom implements Serializable {
         FINISHED
     }
 
-    private final UUID gameRoomID;
-    private final String gameRoomName;
-    private final Player owner;
+    private UUID gameRoomID;
+    private String gameRoomName;
+    private Player owner;
     private Player playerX;
     private Player playerO;
-    private RoomStatus roomStatus;
+    private volatile RoomStatus roomStatus;
     private GameState gameState;
 
+    public GameRoom() {
+    }
+
     public GameRoom(String gameRoomName, Player owner) {
+        this(gameRoomName, owner, GameState.DEFAULT_BOARD_SIZE, GameState.DEFAULT_WINNING_LENGTH);
+    }
+
+    public GameRoom(String gameRoomName, Player owner, int boardSize, int winningLength) {
         this.gameRoomID = UUID.randomUUID();
         this.gameRoomName = gameRoomName;
         this.owner = owner;
         this.playerX = owner;
         this.roomStatus = RoomStatus.WAITING;
-        this.gameState = new GameState(this.gameRoomID);
+        this.gameState = new GameState(this.gameRoomID, boardSize, winningLength);
         this.gameState.setPlayerX(owner);
     }
 
@@ -54,6 +64,10 @@ public class GameRoom implements Serializable {
         return gameState;
     }
 
+    public int getPlayerCount() {
+        return (playerX != null ? 1 : 0) + (playerO != null ? 1 : 0);
+    }
+
     public boolean isRoomFull() {
         return playerX != null && playerO != null;
     }
@@ -82,4 +96,26 @@ public class GameRoom implements Serializable {
             gameState.setCurrentPlayerTurn(playerX);
         }
     }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeUuid(out, gameRoomID);
+        out.writeUTF(gameRoomName);
+        out.writeObject(owner);
+        out.writeObject(playerX);
+        out.writeObject(playerO);
+        out.writeByte(roomStatus.ordinal());
+        out.writeObject(gameState);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        gameRoomID = WireFormat.readUuid(in);
+        gameRoomName = in.readUTF();
+        owner = (Player) in.readObject();
+        playerX = (Player) in.readObject();
+        playerO = (Player) in.readObject();
+        roomStatus = RoomStatus.values()[in.readByte()];
+        gameState = (GameState) in.readObject();
+    }
 }
@@ -1,35 +1,52 @@
 package models;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class GameState implements Serializable {
+public class GameState implements Externalizable {
     private static final long serialVersionUID = 1L;
+    public static final int DEFAULT_BOARD_SIZE = 3;
+    public static final int DEFAULT_WINNING_LENGTH = 3;
     
-    private final UUID gameID;
-    private final List<Move> moves;
-    private final char[][] board;
+    private UUID gameID;
+    private int boardSize;
+    private int winningLength;
+    private List<Move> moves;
+    private char[][] board;
     private Player playerX;
     private Player playerO;
-    private Player currentPlayerTurn;
-    private Player winner;
-    private boolean gameStarted;
-    private boolean finished;
+    private volatile Player currentPlayerTurn;
+    private volatile Player winner;
+    private volatile boolean gameStarted;
+    private volatile boolean finished;
+
+    public GameState() {
+    }
 
     public GameState(UUID gameID) {
+        this(gameID, DEFAULT_BOARD_SIZE, DEFAULT_WINNING_LENGTH);
+    }
+
+    public GameState(UUID gameID, int boardSize, int winningLength) {
         this.gameID = gameID;
-        this.moves = new ArrayList<>();
-        this.board = new char[3][3];
+        this.boardSize = boardSize;
+        this.winningLength = winningLength;
+        this.moves = new CopyOnWriteArrayList<>();
+        this.board = new char[boardSize][boardSize];
         this.gameStarted = false;
         this.finished = false;
         initializeBoard();
     }
 
     private void initializeBoard() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
                 board[i][j] = ' ';
             }
         }
@@ -47,6 +64,14 @@ public class GameState implements Serializable {
         return board;
     }
 
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getWinningLength() {
+        return winningLength;
+    }
+
     public Player getPlayerX() {
         return playerX;
     }
@@ -96,9 +121,104 @@ public class GameState implements Serializable {
     }
 
     public void addMove(Move move) {
-        moves.add(move);
         int row = move.getRow();
         int col = move.getColumn();
         board[row][col] = move.getPlayer().equals(playerX) ? 'X' : 'O';
+        moves.add(move);
+    }
+
+    public void applyDelta(GameStateDelta delta) {
+        if (delta.getFromMoveCount() != moves.size()) {
+            throw new IllegalStateException("Delta starts at move " + delta.getFromMoveCount()
+                    + " but local state has " + moves.size() + " moves");
+        }
+        for (int i = 0; i < delta.getNewMoveCount(); i++) {
+            int cell = delta.getCell(i);
+            Player player = delta.getSide(i) == 'X' ? playerX : playerO;
+            addMove(new Move(cell / boardSize, cell % boardSize, moves.size(), gameID, player));
+        }
+        currentPlayerTurn = playerById(delta.getCurrentPlayerTurnId());
+        winner = playerById(delta.getWinnerId());
+        if (delta.isFinished()) {
+            finished = true;
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeUuid(out, gameID);
+        out.writeByte(boardSize);
+        out.writeByte(winningLength);
+        out.writeObject(playerX);
+        out.writeObject(playerO);
+        out.writeByte(sideOf(currentPlayerTurn));
+        out.writeByte(sideOf(winner));
+        out.writeBoolean(gameStarted);
+        out.writeBoolean(finished);
+
+        Object[] snapshot = moves.toArray();
+        out.writeShort(snapshot.length);
+        for (Object element : snapshot) {
+            Move move = (Move) element;
+            int cell = move.getRow() * boardSize + move.getColumn();
+            int side = board[move.getRow()][move.getColumn()] == 'X' ? 0 : 1;
+            out.writeShort(cell << 1 | side);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        gameID = WireFormat.readUuid(in);
+        boardSize = in.readUnsignedByte();
+        winningLength = in.readUnsignedByte();
+        board = new char[boardSize][boardSize];
+        initializeBoard();
+        playerX = (Player) in.readObject();
+        playerO = (Player) in.readObject();
+        currentPlayerTurn = playerForSide(in.readByte());
+        winner = playerForSide(in.readByte());
+        gameStarted = in.readBoolean();
+        finished = in.readBoolean();
+
+        int moveCount = in.readUnsignedShort();
+        List<Move> decoded = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            int packed = in.readUnsignedShort();
+            int cell = packed >>> 1;
+            boolean isX = (packed & 1) == 0;
+            int row = cell / boardSize;
+            int col = cell % boardSize;
+            board[row][col] = isX ? 'X' : 'O';
+            decoded.add(new Move(row, col, i, gameID, isX ? playerX : playerO));
+        }
+        moves = new CopyOnWriteArrayList<>(decoded);
+    }
+
+    private byte sideOf(Player player) {
+        if (player == null) {
+            return WireFormat.NO_SIDE;
+        }
+        return player.equals(playerX) ? WireFormat.SIDE_X : WireFormat.SIDE_O;
+    }
+
+    private Player playerForSide(byte side) {
+        return switch (side) {
+            case WireFormat.SIDE_X -> playerX;
+            case WireFormat.SIDE_O -> playerO;
+            default -> null;
+        };
+    }
+
+    private Player playerById(UUID playerId) {
+        if (playerId == null) {
+            return null;
+        }
+        if (playerX != null && playerId.equals(playerX.getPlayerId())) {
+            return playerX;
+        }
+        if (playerO != null && playerId.equals(playerO.getPlayerId())) {
+            return playerO;
+        }
+        return null;
     }
 }
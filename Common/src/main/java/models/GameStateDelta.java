@@ -0,0 +1,78 @@
+package models;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+public class GameStateDelta implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int fromMoveCount;
+    private final int[] cells;
+    private final char[] sides;
+    private final UUID currentPlayerTurnId;
+    private final UUID winnerId;
+    private final boolean finished;
+
+    private GameStateDelta(int fromMoveCount, int[] cells, char[] sides,
+                           UUID currentPlayerTurnId, UUID winnerId, boolean finished) {
+        this.fromMoveCount = fromMoveCount;
+        this.cells = cells;
+        this.sides = sides;
+        this.currentPlayerTurnId = currentPlayerTurnId;
+        this.winnerId = winnerId;
+        this.finished = finished;
+    }
+
+    public static GameStateDelta since(GameState state, int moveCount) {
+        List<Move> moves = state.getMoves();
+        int total = moves.size();
+        int from = Math.max(0, Math.min(moveCount, total));
+        int boardSize = state.getBoardSize();
+        int[] cells = new int[total - from];
+        char[] sides = new char[total - from];
+        for (int i = from; i < total; i++) {
+            Move move = moves.get(i);
+            cells[i - from] = move.getRow() * boardSize + move.getColumn();
+            sides[i - from] = state.getBoard()[move.getRow()][move.getColumn()];
+        }
+        return new GameStateDelta(from, cells, sides,
+                idOf(state.getCurrentPlayerTurn()), idOf(state.getWinner()), state.isFinished());
+    }
+
+    private static UUID idOf(Player player) {
+        return player == null ? null : player.getPlayerId();
+    }
+
+    public int getFromMoveCount() {
+        return fromMoveCount;
+    }
+
+    public int getMoveCount() {
+        return fromMoveCount + cells.length;
+    }
+
+    public int getNewMoveCount() {
+        return cells.length;
+    }
+
+    public int getCell(int index) {
+        return cells[index];
+    }
+
+    public char getSide(int index) {
+        return sides[index];
+    }
+
+    public UUID getCurrentPlayerTurnId() {
+        return currentPlayerTurnId;
+    }
+
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,55 @@
+package models;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+public final class LeaderboardEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int rank;
+    private final UUID playerId;
+    private final String playerName;
+    private final long score;
+    private final int wins;
+    private final int losses;
+    private final int draws;
+
+    public LeaderboardEntry(int rank, UUID playerId, String playerName, long score,
+                            int wins, int losses, int draws) {
+        this.rank = rank;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.score = score;
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+}
@@ -1,15 +1,21 @@
 package models;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.UUID;
 
-public class Move implements Serializable {
-    private final int row;
-    private final int column;
-    private final int moveID;
-    private final UUID gameID;
-    private final Player player;
+public class Move implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private int row;
+    private int column;
+    private int moveID;
+    private UUID gameID;
+    private Player player;
 
+    public Move() {
+    }
 
     public Move(int row, int column, int moveID, UUID gameID, Player player) {
         this.row = row;
@@ -39,5 +45,25 @@ public class Move implements Serializable {
     public Player getPlayer() {
         return player;
     }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeShort(row);
+        out.writeShort(column);
+        out.writeInt(moveID);
+        WireFormat.writeUuid(out, gameID);
+        out.writeUTF(player.getName());
+        WireFormat.writeUuid(out, player.getPlayerId());
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        row = in.readShort();
+        column = in.readShort();
+        moveID = in.readInt();
+        gameID = WireFormat.readUuid(in);
+        String playerName = in.readUTF();
+        player = new Player(playerName, WireFormat.readUuid(in));
+    }
 }
 
@@ -1,19 +1,30 @@
 package models;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.UUID;
 
-public class Player implements Serializable {
+public class Player implements Externalizable {
     private static final long serialVersionUID = 1L;
-    private final String name;
-    private final UUID playerId;
+    private String name;
+    private UUID playerId;
     private final PlayerStats playerStats;
     private String ipAddress;
     private int CHAT_PORT;
 
+    public Player() {
+        this.playerStats = new PlayerStats();
+    }
+
     public Player(String name) {
+        this(name, UUID.randomUUID());
+    }
+
+    public Player(String name, UUID playerId) {
         this.name = name;
-        this.playerId = UUID.randomUUID();
+        this.playerId = playerId;
         this.playerStats = new PlayerStats();
     }
 
@@ -45,6 +56,24 @@ public class Player implements Serializable {
         this.CHAT_PORT = CHAT_PORT;
     }
 
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeUTF(name);
+        WireFormat.writeUuid(out, playerId);
+        playerStats.writeExternal(out);
+        WireFormat.writeNullableString(out, ipAddress);
+        out.writeInt(CHAT_PORT);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        name = in.readUTF();
+        playerId = WireFormat.readUuid(in);
+        playerStats.readExternal(in);
+        ipAddress = WireFormat.readNullableString(in);
+        CHAT_PORT = in.readInt();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,45 +1,83 @@
 package models;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
-public class PlayerStats implements Serializable {
+public class PlayerStats implements Externalizable {
     private static final long serialVersionUID = 1L;
+    public static final double INITIAL_RATING = 1500;
     private int wins;
     private int losses;
     private int draws;
+    private double rating;
 
     public PlayerStats() {
         this.wins = 0;
         this.losses = 0;
         this.draws = 0;
+        this.rating = INITIAL_RATING;
     }
 
-    public void incrementWins() {
+    public synchronized void incrementWins() {
         wins++;
     }
 
-    public void incrementLosses() {
+    public synchronized void incrementLosses() {
         losses++;
     }
 
-    public void incrementDraws() {
+    public synchronized void incrementDraws() {
         draws++;
     }
 
-    public int getWins() {
+    public synchronized double adjustRating(double change) {
+        rating += change;
+        return rating;
+    }
+
+    public synchronized void restore(int wins, int losses, int draws, double rating) {
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+        this.rating = rating;
+    }
+
+    public synchronized int getWins() {
         return wins;
     }
 
-    public int getLosses() {
+    public synchronized int getLosses() {
         return losses;
     }
 
-    public int getDraws() {
+    public synchronized int getDraws() {
         return draws;
     }
 
+    public synchronized double getRating() {
+        return rating;
+    }
+
+    @Override
+    public synchronized void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(wins);
+        out.writeInt(losses);
+        out.writeInt(draws);
+        out.writeDouble(rating);
+    }
+
+    @Override
+    public synchronized void readExternal(ObjectInput in) throws IOException {
+        wins = in.readInt();
+        losses = in.readInt();
+        draws = in.readInt();
+        rating = in.readDouble();
+    }
+
     @Override
     public String toString() {
-        return String.format("Wins: %d, Losses: %d, Draws: %d", wins, losses, draws);
+        return String.format("Wins: %d, Losses: %d, Draws: %d, Rating: %.0f", wins, losses, draws, rating);
     }
 } 
\ No newline at end of file
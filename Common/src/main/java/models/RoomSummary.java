@@ -0,0 +1,55 @@
+package models;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+public final class RoomSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID gameRoomID;
+    private final String gameRoomName;
+    private final String ownerName;
+    private final int playerCount;
+    private final int boardSize;
+    private final int winningLength;
+
+    public RoomSummary(UUID gameRoomID, String gameRoomName, String ownerName,
+                       int playerCount, int boardSize, int winningLength) {
+        this.gameRoomID = gameRoomID;
+        this.gameRoomName = gameRoomName;
+        this.ownerName = ownerName;
+        this.playerCount = playerCount;
+        this.boardSize = boardSize;
+        this.winningLength = winningLength;
+    }
+
+    public static RoomSummary of(GameRoom room) {
+        GameState state = room.getGameState();
+        return new RoomSummary(room.getGameRoomID(), room.getGameRoomName(), room.getOwner().getName(),
+                room.getPlayerCount(), state.getBoardSize(), state.getWinningLength());
+    }
+
+    public UUID getGameRoomID() {
+        return gameRoomID;
+    }
+
+    public String getGameRoomName() {
+        return gameRoomName;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getWinningLength() {
+        return winningLength;
+    }
+}
@@ -0,0 +1,43 @@
+package protocol;
+
+import java.util.UUID;
+
+/**
+ * Wire conventions shared by the chat hub and its clients. Every message is
+ * one {@link FrameCodec} frame; the first frame a client sends names the room
+ * it joins and the player sending.
+ */
+public final class ChatProtocol {
+    public static final int DEFAULT_PORT = 5000;
+    public static final int MAX_FRAME_BYTES = 8192;
+    private static final String JOIN_PREFIX = "JOIN ";
+
+    public record Join(UUID roomId, UUID senderId) {
+    }
+
+    private ChatProtocol() {
+    }
+
+    public static String join(UUID roomId, UUID senderId) {
+        return JOIN_PREFIX + roomId + " " + senderId;
+    }
+
+    /**
+     * Returns the room and sender named by a join message, or null if it is
+     * not one.
+     */
+    public static Join parseJoin(String message) {
+        if (!message.startsWith(JOIN_PREFIX)) {
+            return null;
+        }
+        String[] ids = message.substring(JOIN_PREFIX.length()).trim().split(" ");
+        if (ids.length != 2) {
+            return null;
+        }
+        try {
+            return new Join(UUID.fromString(ids[0]), UUID.fromString(ids[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
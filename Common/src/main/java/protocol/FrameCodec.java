@@ -0,0 +1,117 @@
+package protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads chat frames from one connection. A frame is a four-byte big-endian
+ * payload length followed by that many bytes of UTF-8. Bytes are read into a
+ * single reusable buffer and decoded straight out of it, so a frame may
+ * arrive over any number of reads and nothing is allocated per byte.
+ *
+ * Not thread-safe; each connection owns its codec and uses it from its
+ * selector thread.
+ */
+public final class FrameCodec {
+    public static final int HEADER_BYTES = Integer.BYTES;
+
+    private final ByteBuffer inbound;
+    private final CharsetDecoder decoder;
+    private final CharBuffer chars;
+
+    public FrameCodec(boolean direct) {
+        int capacity = HEADER_BYTES + ChatProtocol.MAX_FRAME_BYTES;
+        this.inbound = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        this.inbound.flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(ChatProtocol.MAX_FRAME_BYTES);
+    }
+
+    /**
+     * Discards everything read so far, including any partial frame; for
+     * starting over on a new connection.
+     */
+    public void clear() {
+        inbound.clear().flip();
+    }
+
+    /**
+     * Encodes one message as a frame ready to be written.
+     */
+    public static ByteBuffer encode(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        if (payload.length > ChatProtocol.MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Chat message longer than " + ChatProtocol.MAX_FRAME_BYTES + " bytes");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).put(payload).flip();
+        return frame;
+    }
+
+    /**
+     * Reads whatever the channel has into the buffer, keeping any frame that
+     * is still incomplete. Returns the channel's result, -1 at end of stream.
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        inbound.compact();
+        try {
+            return channel.read(inbound);
+        } finally {
+            inbound.flip();
+        }
+    }
+
+    /**
+     * Returns the next complete frame, header included, or null if it has not
+     * fully arrived. The returned buffer shares the codec's memory and is only
+     * valid until the next {@link #readFrom}.
+     */
+    public ByteBuffer nextFrame() throws IOException {
+        if (inbound.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int start = inbound.position();
+        int length = inbound.getInt(start);
+        if (length < 0 || length > ChatProtocol.MAX_FRAME_BYTES) {
+            throw new IOException("Invalid chat frame length " + length);
+        }
+        if (inbound.remaining() < HEADER_BYTES + length) {
+            return null;
+        }
+        inbound.position(start + HEADER_BYTES + length);
+        return inbound.slice(start, HEADER_BYTES + length);
+    }
+
+    /**
+     * Decodes the payload of a frame returned by {@link #nextFrame}.
+     */
+    public String decode(ByteBuffer frame) throws CharacterCodingException {
+        ByteBuffer payload = frame.duplicate();
+        payload.position(payload.position() + HEADER_BYTES);
+        decoder.reset();
+        chars.clear();
+        CoderResult result = decoder.decode(payload, chars, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        decoder.flush(chars);
+        return chars.flip().toString();
+    }
+
+    /**
+     * Returns the next complete message, or null if it has not fully arrived.
+     */
+    public String nextMessage() throws IOException {
+        ByteBuffer frame = nextFrame();
+        return frame == null ? null : decode(frame);
+    }
+}
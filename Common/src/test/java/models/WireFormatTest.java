@@ -0,0 +1,165 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WireFormatTest {
+
+    @Test
+    void playerStatsRoundTrip() throws Exception {
+        PlayerStats stats = new PlayerStats();
+        stats.restore(7, 3, 2, 1623.25);
+
+        PlayerStats copy = roundTrip(stats);
+        assertStats(stats, copy);
+    }
+
+    @Test
+    void playerRoundTrip() throws Exception {
+        Player player = player("Zoë", 4, 1, 0, 1550.5);
+        player.setIpAddress("192.168.0.10");
+        player.setCHAT_PORT(5001);
+
+        Player copy = roundTrip(player);
+        assertPlayer(player, copy);
+        assertEquals("192.168.0.10", copy.getIpAddress());
+        assertEquals(5001, copy.getCHAT_PORT());
+    }
+
+    @Test
+    void playerWithoutAddressRoundTrip() throws Exception {
+        Player player = new Player("no address");
+
+        Player copy = roundTrip(player);
+        assertPlayer(player, copy);
+        assertNull(copy.getIpAddress());
+    }
+
+    @Test
+    void moveRoundTrip() throws Exception {
+        Player player = player("mover", 1, 2, 3, 1480);
+        Move move = new Move(6, 4, 17, UUID.randomUUID(), player);
+
+        Move copy = roundTrip(move);
+        assertEquals(6, copy.getRow());
+        assertEquals(4, copy.getColumn());
+        assertEquals(17, copy.getMoveID());
+        assertEquals(move.getGameID(), copy.getGameID());
+        assertEquals(player.getName(), copy.getPlayer().getName());
+        assertEquals(player.getPlayerId(), copy.getPlayer().getPlayerId());
+    }
+
+    @Test
+    void waitingRoomWithoutOpponentRoundTrip() throws Exception {
+        Player owner = player("owner", 0, 0, 0, PlayerStats.INITIAL_RATING);
+        GameRoom room = new GameRoom("lobby", owner);
+
+        GameRoom copy = roundTrip(room);
+        assertEquals(room.getGameRoomID(), copy.getGameRoomID());
+        assertEquals("lobby", copy.getGameRoomName());
+        assertEquals(GameRoom.RoomStatus.WAITING, copy.getRoomStatus());
+        assertPlayer(owner, copy.getOwner());
+        assertEquals(1, copy.getPlayerCount());
+
+        GameState state = copy.getGameState();
+        assertEquals(room.getGameState().getGameID(), state.getGameID());
+        assertNull(state.getPlayerO());
+        assertNull(state.getCurrentPlayerTurn());
+        assertNull(state.getWinner());
+        assertFalse(state.isGameStarted());
+        assertFalse(state.isFinished());
+        assertTrue(state.getMoves().isEmpty());
+    }
+
+    /**
+     * A won game on a 5x5 board with four in a row, so cells past the 3x3
+     * corner, the winner and the finished flag all have to survive.
+     */
+    @Test
+    void finishedGameOnALargerBoardRoundTrip() throws Exception {
+        Player playerX = player("X", 10, 2, 1, 1700);
+        Player playerO = player("O", 2, 10, 1, 1300);
+        GameRoom room = new GameRoom("big", playerX, 5, 4);
+        room.addPlayer(playerO);
+        room.startGame();
+        GameState state = room.getGameState();
+        int[][] cells = {{4, 1}, {0, 0}, {3, 2}, {0, 4}, {2, 3}, {4, 4}, {1, 4}};
+        for (int i = 0; i < cells.length; i++) {
+            Player player = i % 2 == 0 ? playerX : playerO;
+            state.addMove(new Move(cells[i][0], cells[i][1], i, state.getGameID(), player));
+        }
+        state.setCurrentPlayerTurn(playerO);
+        state.setWinner(playerX);
+        state.finishGame();
+        room.setRoomStatus(GameRoom.RoomStatus.FINISHED);
+
+        GameRoom copy = roundTrip(room);
+        assertEquals(GameRoom.RoomStatus.FINISHED, copy.getRoomStatus());
+        assertEquals(2, copy.getPlayerCount());
+        GameState copied = copy.getGameState();
+        assertEquals(5, copied.getBoardSize());
+        assertEquals(4, copied.getWinningLength());
+        assertTrue(copied.isGameStarted());
+        assertTrue(copied.isFinished());
+        assertPlayer(playerX, copied.getPlayerX());
+        assertPlayer(playerO, copied.getPlayerO());
+        assertSame(copied.getPlayerX(), copied.getWinner());
+        assertSame(copied.getPlayerO(), copied.getCurrentPlayerTurn());
+        assertSame(copy.getOwner(), copied.getPlayerX(), "players are shared, not written twice");
+
+        assertEquals(cells.length, copied.getMoves().size());
+        for (int i = 0; i < cells.length; i++) {
+            Move move = copied.getMoves().get(i);
+            assertEquals(cells[i][0], move.getRow());
+            assertEquals(cells[i][1], move.getColumn());
+            assertEquals(i, move.getMoveID());
+            assertEquals(state.getGameID(), move.getGameID());
+            assertSame(i % 2 == 0 ? copied.getPlayerX() : copied.getPlayerO(), move.getPlayer());
+        }
+        for (int row = 0; row < 5; row++) {
+            assertEquals(new String(state.getBoard()[row]), new String(copied.getBoard()[row]), "row " + row);
+        }
+    }
+
+    private static Player player(String name, int wins, int losses, int draws, double rating) {
+        Player player = new Player(name);
+        player.getPlayerStats().restore(wins, losses, draws, rating);
+        return player;
+    }
+
+    private static void assertPlayer(Player expected, Player actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getPlayerId(), actual.getPlayerId());
+        assertStats(expected.getPlayerStats(), actual.getPlayerStats());
+    }
+
+    private static void assertStats(PlayerStats expected, PlayerStats actual) {
+        assertEquals(expected.getWins(), actual.getWins());
+        assertEquals(expected.getLosses(), actual.getLosses());
+        assertEquals(expected.getDraws(), actual.getDraws());
+        assertEquals(expected.getRating(), actual.getRating());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package loadgen;
+
+import controllers.GameRoomManager;
+import controllers.GameServerImpl;
+import interfaces.GameServerInterface;
+import metrics.LatencyHistogram;
+import models.GameState;
+import models.Move;
+import models.Player;
+
+import java.nio.file.Files;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Drives a TicTacToe server with pairs of bot players that register, create and
+ * join a room, play random valid moves to the end and unregister, then prints
+ * latency percentiles and throughput for every remote method that was called.
+ *
+ * Options (all --key=value): host, port, bots, rate (new games per second),
+ * threads, board, win, inProcess (start a GameServerImpl in this JVM, with its
+ * data in a temporary directory unless tictactoe.dataDir is set), ranked.
+ *
+ * Bots are named with {@link GameRoomManager#LOAD_TEST_PREFIX}, so the server
+ * keeps them out of the player registry, the stats log, the leaderboard and
+ * the game history. With ranked the bots get ordinary names and every write
+ * path is exercised, so only point such a run at a disposable data directory.
+ */
+public class LoadGenerator {
+    private static final String BIND_NAME = "TicTacToeServer";
+
+    @FunctionalInterface
+    private interface RemoteCall<T> {
+        T call() throws RemoteException;
+    }
+
+    @FunctionalInterface
+    private interface RemoteAction {
+        void run() throws RemoteException;
+    }
+
+    private final GameServerInterface server;
+    private final Map<String, LatencyHistogram> histograms;
+    private final int boardSize;
+    private final int winningLength;
+    private final String namePrefix;
+    private final AtomicInteger completedGames;
+    private final AtomicInteger failedGames;
+
+    public LoadGenerator(GameServerInterface server, int boardSize, int winningLength, boolean ranked) {
+        this.server = server;
+        this.histograms = new ConcurrentHashMap<>();
+        this.boardSize = boardSize;
+        this.winningLength = winningLength;
+        this.namePrefix = ranked ? "bot-" : GameRoomManager.LOAD_TEST_PREFIX + "bot-";
+        this.completedGames = new AtomicInteger();
+        this.failedGames = new AtomicInteger();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String host = options.getOrDefault("host", "localhost");
+        int port = Integer.parseInt(options.getOrDefault("port", "1099"));
+        int bots = Integer.parseInt(options.getOrDefault("bots", "1000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int boardSize = Integer.parseInt(options.getOrDefault("board", "3"));
+        int winningLength = Integer.parseInt(options.getOrDefault("win", String.valueOf(Math.min(boardSize, 5))));
+        boolean inProcess = Boolean.parseBoolean(options.getOrDefault("inProcess", "false"));
+        boolean ranked = Boolean.parseBoolean(options.getOrDefault("ranked", "false"));
+
+        Logger rootLogger = Logger.getLogger("");
+        rootLogger.setLevel(Level.WARNING);
+        for (Handler handler : rootLogger.getHandlers()) {
+            handler.setLevel(Level.WARNING);
+        }
+
+        GameServerImpl localServer = null;
+        if (inProcess) {
+            System.setProperty("java.rmi.server.hostname", "localhost");
+            if (System.getProperty("tictactoe.dataDir") == null) {
+                System.setProperty("tictactoe.dataDir", Files.createTempDirectory("tictactoe-loadgen").toString());
+            }
+            localServer = new GameServerImpl();
+            LocateRegistry.createRegistry(port).rebind(BIND_NAME, localServer);
+        }
+
+        Registry registry = LocateRegistry.getRegistry(host, port);
+        GameServerInterface server = (GameServerInterface) registry.lookup(BIND_NAME);
+
+        LoadGenerator generator = new LoadGenerator(server, boardSize, winningLength, ranked);
+        generator.run(bots / 2, rate, threads);
+
+        if (localServer != null) {
+            UnicastRemoteObject.unexportObject(localServer, true);
+        }
+        System.exit(0);
+    }
+
+    public void run(int games, double gamesPerSecond, int threads) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch finished = new CountDownLatch(games);
+        AtomicInteger launched = new AtomicInteger();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / gamesPerSecond);
+
+        System.out.printf("Starting %d games (%d bots) at %.1f games/s on %d threads%n",
+                games, games * 2, gamesPerSecond, threads);
+        long start = System.nanoTime();
+        arrivals.scheduleAtFixedRate(() -> {
+            int id = launched.getAndIncrement();
+            if (id >= games) {
+                arrivals.shutdown();
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    playGame(id);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }, 0, Math.max(1, periodNanos), TimeUnit.NANOSECONDS);
+
+        finished.await();
+        long elapsedNanos = System.nanoTime() - start;
+        workers.shutdown();
+        arrivals.shutdownNow();
+        printReport(elapsedNanos);
+    }
+
+    private void playGame(int id) {
+        Player playerX;
+        try {
+            playerX = register(namePrefix + id + "-x");
+        } catch (RemoteException | RuntimeException e) {
+            failedGames.incrementAndGet();
+            return;
+        }
+        Player playerO;
+        try {
+            playerO = register(namePrefix + id + "-o");
+        } catch (RemoteException | RuntimeException e) {
+            failedGames.incrementAndGet();
+            unregister(playerX);
+            return;
+        }
+        try {
+            UUID roomId = timed("createRoom",
+                    () -> server.createRoom("load-" + id, playerX, boardSize, winningLength));
+            timed("listWaitingRooms", () -> server.listWaitingRooms(0, 20));
+            timed("joinRoom", () -> server.joinRoom(roomId, playerO));
+            timed("startGame", () -> server.startGame(roomId));
+
+            GameState state = timed("getGameState", () -> server.getGameState(roomId));
+            while (!state.isFinished()) {
+                int[] cell = randomEmptyCell(state);
+                Move move = new Move(cell[0], cell[1], state.getMoves().size(), roomId, state.getCurrentPlayerTurn());
+                timed("makeMove", () -> server.makeMove(roomId, move));
+                int seen = state.getMoves().size();
+                state.applyDelta(timed("getGameStateSince", () -> server.getGameStateSince(roomId, seen)));
+            }
+            completedGames.incrementAndGet();
+        } catch (RemoteException | RuntimeException e) {
+            failedGames.incrementAndGet();
+        } finally {
+            unregister(playerX);
+            unregister(playerO);
+        }
+    }
+
+    private Player register(String name) throws RemoteException {
+        return timed("registerPlayer", () -> server.registerPlayer(new Player(name)));
+    }
+
+    private void unregister(Player player) {
+        try {
+            timed("unregisterPlayer", () -> server.unregisterPlayer(player));
+        } catch (RemoteException | RuntimeException ignored) {
+        }
+    }
+
+    private static int[] randomEmptyCell(GameState state) {
+        char[][] board = state.getBoard();
+        List<int[]> empty = new ArrayList<>();
+        for (int row = 0; row < board.length; row++) {
+            for (int column = 0; column < board.length; column++) {
+                if (board[row][column] == ' ') {
+                    empty.add(new int[]{row, column});
+                }
+            }
+        }
+        return empty.get(ThreadLocalRandom.current().nextInt(empty.size()));
+    }
+
+    private <T> T timed(String method, RemoteCall<T> call) throws RemoteException {
+        LatencyHistogram histogram = histograms.computeIfAbsent(method, name -> new LatencyHistogram());
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            return result;
+        } catch (RemoteException | RuntimeException e) {
+            histogram.recordError();
+            throw e;
+        }
+    }
+
+    private void timed(String method, RemoteAction action) throws RemoteException {
+        timed(method, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void printReport(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nCompleted %d games, %d failed, in %.2f s%n",
+                completedGames.get(), failedGames.get(), seconds);
+        System.out.printf("%-20s %10s %8s %10s %10s %10s %10s %12s%n",
+                "method", "calls", "errors", "p50 us", "p99 us", "p999 us", "max us", "calls/s");
+        for (Map.Entry<String, LatencyHistogram> entry : new ConcurrentSkipListMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            System.out.printf("%-20s %10d %8d %10d %10d %10d %10d %12.1f%n",
+                    entry.getKey(), histogram.getCount(), histogram.getErrors(),
+                    histogram.percentileMicros(50), histogram.percentileMicros(99),
+                    histogram.percentileMicros(99.9), histogram.getMaxMicros(),
+                    histogram.getCount() / seconds);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int separator = arg.indexOf('=');
+                if (separator > 2) {
+                    options.put(arg.substring(2, separator), arg.substring(separator + 1));
+                } else {
+                    options.put(arg.substring(2), "true");
+                }
+            }
+        }
+        return options;
+    }
+}
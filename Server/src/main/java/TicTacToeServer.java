@@ -1,3 +1,4 @@
+import chat.ChatHub;
 import controllers.GameServerImpl;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
@@ -6,18 +7,32 @@ import interfaces.GameServerInterface;
 public class TicTacToeServer {
     private static final int PORT = 1099;
     private static final String BIND_NAME = "TicTacToeServer";
+    private static final String CALLBACK_TIMEOUT_MILLIS = "2000";
 
     public static void main(String[] args) {
         try {
             System.setProperty("java.rmi.server.hostname", "localhost");
+            // Bounds every callback to a client, so a spectator or player that
+            // stops answering fails the call instead of holding a thread.
+            if (System.getProperty("sun.rmi.transport.tcp.responseTimeout") == null) {
+                System.setProperty("sun.rmi.transport.tcp.responseTimeout", CALLBACK_TIMEOUT_MILLIS);
+            }
             
             GameServerImpl server = new GameServerImpl();
+            ChatHub chatHub = new ChatHub(ChatHub.PORT, server::hasRoom);
+            chatHub.start();
+            server.setChatHub(chatHub);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                chatHub.close();
+                server.shutdown();
+            }));
             
             Registry registry = LocateRegistry.createRegistry(PORT);
             registry.rebind(BIND_NAME, server);
 
             System.out.println("TicTacToe Server is running on port " + PORT);
             System.out.println("Server bound with name: " + BIND_NAME);
+            System.out.println("Chat hub is running on port " + chatHub.getPort());
             
         } catch (Exception e) {
             System.err.println("Server exception: " + e.toString());
@@ -0,0 +1,303 @@
+package ai;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negamax with alpha-beta pruning and iterative deepening for boards too large
+ * to tabulate. Positions are Zobrist hashed into a fixed-size transposition
+ * table that keeps the best move and bound of each searched position, so
+ * deeper iterations try the previous best line first. Only empty cells next to
+ * an existing stone are considered, ordered by how much they extend either
+ * side's runs.
+ *
+ * An instance keeps its table between calls and is not thread safe; each
+ * worker thread owns one.
+ */
+public final class AlphaBetaSearch {
+    private static final int TABLE_BITS = 18;
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    private static final int WIN_SCORE = 1_000_000;
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int MAX_BRANCHING = 16;
+    private static final int CLOCK_CHECK_MASK = 1023;
+    private static final Map<Integer, long[]> ZOBRIST = new ConcurrentHashMap<>();
+
+    private final long[] tableKeys = new long[1 << TABLE_BITS];
+    private final long[] tableEntries = new long[1 << TABLE_BITS];
+
+    private byte[] cells;
+    private int size;
+    private int winningLength;
+    private int stones;
+    private long[] zobrist;
+    private int[] weights;
+    private int evaluationLimit;
+    private int[][] candidates;
+    private int[][] orderKeys;
+    private long deadline;
+    private long nodes;
+
+    /**
+     * Returns the chosen cell for {@code side}, or -1 if the board is full.
+     * The search stops deepening once {@code budgetNanos} has elapsed and
+     * answers with the best move of the last completed iteration. The board
+     * is copied, so an abandoned iteration leaves nothing to undo.
+     */
+    public int bestCell(byte[] board, int boardSize, int winningLength, byte side, long budgetNanos) {
+        prepare(board, boardSize, winningLength);
+        this.deadline = System.nanoTime() + budgetNanos;
+        if (stones == cells.length) {
+            return -1;
+        }
+        if (stones == 0) {
+            return (size / 2) * size + size / 2;
+        }
+        int immediate = Board.winningCell(cells, size, winningLength, side);
+        if (immediate < 0) {
+            immediate = Board.winningCell(cells, size, winningLength, Board.opponent(side));
+        }
+        if (immediate >= 0) {
+            return immediate;
+        }
+
+        long hash = hash();
+        int best = generateCandidates(0, side, -1) > 0 ? candidates[0][0] : -1;
+        int empties = cells.length - stones;
+        for (int depth = 1; depth <= empties; depth++) {
+            try {
+                int score = negamax(depth, -INFINITY, INFINITY, side, hash, 0);
+                best = bestMove(hash, best);
+                if (Math.abs(score) >= WIN_SCORE - cells.length) {
+                    break;
+                }
+            } catch (Timeout timeout) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private int negamax(int depth, int alpha, int beta, byte side, long hash, int ply) {
+        if ((++nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            throw Timeout.INSTANCE;
+        }
+        int slot = (int) hash & TABLE_MASK;
+        int tableMove = -1;
+        if (tableKeys[slot] == hash) {
+            long entry = tableEntries[slot];
+            int entryScore = (int) entry;
+            tableMove = (int) (entry >>> 32 & 0xFFFF) - 1;
+            if ((int) (entry >>> 50) >= depth) {
+                int bound = (int) (entry >>> 48 & 3);
+                if (bound == EXACT
+                        || bound == LOWER_BOUND && entryScore >= beta
+                        || bound == UPPER_BOUND && entryScore <= alpha) {
+                    return entryScore;
+                }
+            }
+        }
+        if (depth == 0) {
+            return evaluate(side);
+        }
+
+        int count = generateCandidates(ply, side, tableMove);
+        if (count == 0) {
+            return 0;
+        }
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestCell = -1;
+        byte opponent = Board.opponent(side);
+        int[] moves = candidates[ply];
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            cells[cell] = side;
+            stones++;
+            int score;
+            if (Board.completesLine(cells, size, winningLength, cell)) {
+                score = WIN_SCORE - ply;
+            } else if (stones == cells.length) {
+                score = 0;
+            } else {
+                long childHash = hash ^ zobrist[cell * 2 + side - 1];
+                score = -negamax(depth - 1, -beta, -alpha, opponent, childHash, ply + 1);
+            }
+            cells[cell] = Board.EMPTY;
+            stones--;
+            if (score > best) {
+                best = score;
+                bestCell = cell;
+            }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int bound = best <= originalAlpha ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+        tableKeys[slot] = hash;
+        tableEntries[slot] = (best & 0xFFFFFFFFL)
+                | (long) (bestCell + 1) << 32
+                | (long) bound << 48
+                | (long) depth << 50;
+        return best;
+    }
+
+    private int bestMove(long hash, int fallback) {
+        int slot = (int) hash & TABLE_MASK;
+        if (tableKeys[slot] != hash) {
+            return fallback;
+        }
+        int cell = (int) (tableEntries[slot] >>> 32 & 0xFFFF) - 1;
+        return cell >= 0 ? cell : fallback;
+    }
+
+    /**
+     * Fills {@code candidates[ply]} with empty cells adjacent to a stone, the
+     * transposition table move first and the rest by descending run potential.
+     */
+    private int generateCandidates(int ply, byte side, int tableMove) {
+        int[] moves = candidates[ply];
+        int[] keys = orderKeys[ply];
+        byte opponent = Board.opponent(side);
+        int count = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != Board.EMPTY || !hasNeighbour(cell)) {
+                continue;
+            }
+            int key;
+            if (cell == tableMove) {
+                key = Integer.MAX_VALUE;
+            } else {
+                cells[cell] = side;
+                int own = Board.longestRun(cells, size, cell);
+                cells[cell] = opponent;
+                int theirs = Board.longestRun(cells, size, cell);
+                cells[cell] = Board.EMPTY;
+                key = own * own * 2 + theirs * theirs;
+            }
+            int position = count++;
+            while (position > 0 && keys[position - 1] < key) {
+                moves[position] = moves[position - 1];
+                keys[position] = keys[position - 1];
+                position--;
+            }
+            moves[position] = cell;
+            keys[position] = key;
+        }
+        return Math.min(count, MAX_BRANCHING);
+    }
+
+    private boolean hasNeighbour(int cell) {
+        int row = cell / size;
+        int column = cell % size;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(size - 1, column + 1); c++) {
+                if (cells[r * size + c] != Board.EMPTY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sums every line segment of winning length that only one side occupies,
+     * weighted steeply by how many stones it already holds. The result stays
+     * strictly inside the band reserved for forced wins and losses.
+     */
+    private int evaluate(byte side) {
+        int score = 0;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                score += window(side, row, column, 0, 1);
+                score += window(side, row, column, 1, 0);
+                score += window(side, row, column, 1, 1);
+                score += window(side, row, column, 1, -1);
+            }
+        }
+        return Math.max(-evaluationLimit, Math.min(evaluationLimit, score));
+    }
+
+    private int window(byte side, int row, int column, int dRow, int dColumn) {
+        int endRow = row + dRow * (winningLength - 1);
+        int endColumn = column + dColumn * (winningLength - 1);
+        if (endRow >= size || endColumn < 0 || endColumn >= size) {
+            return 0;
+        }
+        int own = 0;
+        int theirs = 0;
+        for (int i = 0; i < winningLength; i++) {
+            byte cell = cells[(row + dRow * i) * size + column + dColumn * i];
+            if (cell == side) {
+                own++;
+            } else if (cell != Board.EMPTY) {
+                theirs++;
+            }
+        }
+        if (own > 0 && theirs > 0) {
+            return 0;
+        }
+        return weights[own] - weights[theirs];
+    }
+
+    private void prepare(byte[] board, int boardSize, int length) {
+        if (size != boardSize || winningLength != length) {
+            this.size = boardSize;
+            this.winningLength = length;
+            this.zobrist = ZOBRIST.computeIfAbsent(boardSize, AlphaBetaSearch::zobristKeys);
+            this.candidates = new int[board.length + 1][board.length];
+            this.orderKeys = new int[board.length + 1][board.length];
+            // Every window at the top weight must still sum to less than the
+            // smallest win score.
+            this.evaluationLimit = WIN_SCORE - board.length - 1;
+            int span = boardSize - length + 1;
+            int windows = 2 * boardSize * span + 2 * span * span;
+            int maxWeight = evaluationLimit / windows;
+            this.weights = new int[length + 1];
+            for (int i = 1; i <= length; i++) {
+                weights[i] = Math.min(maxWeight, 1 << Math.min(30, 2 * i));
+            }
+        }
+        this.cells = board.clone();
+        this.stones = 0;
+        for (byte cell : cells) {
+            if (cell != Board.EMPTY) {
+                stones++;
+            }
+        }
+        this.nodes = 0;
+    }
+
+    private long hash() {
+        long hash = winningLength * 0x9E3779B97F4A7C15L;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != Board.EMPTY) {
+                hash ^= zobrist[cell * 2 + cells[cell] - 1];
+            }
+        }
+        return hash;
+    }
+
+    private static long[] zobristKeys(int boardSize) {
+        SplittableRandom random = new SplittableRandom(boardSize);
+        long[] keys = new long[boardSize * boardSize * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    private static final class Timeout extends RuntimeException {
+        private static final Timeout INSTANCE = new Timeout();
+
+        private Timeout() {
+            super(null, null, false, false);
+        }
+    }
+}
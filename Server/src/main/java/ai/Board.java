@@ -0,0 +1,113 @@
+package ai;
+
+import models.GameState;
+import models.Move;
+import models.Player;
+
+import java.util.List;
+
+/**
+ * Flat byte encoding of a board shared by the move generators: cell
+ * {@code row * size + column} holds {@link #EMPTY}, {@link #X} or {@link #O}.
+ */
+public final class Board {
+    public static final byte EMPTY = 0;
+    public static final byte X = 1;
+    public static final byte O = 2;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private Board() {
+    }
+
+    /**
+     * Rebuilds the board from the move list, which is copy-on-write and so
+     * gives a consistent view without holding the room lock.
+     */
+    public static byte[] cellsOf(GameState state) {
+        int size = state.getBoardSize();
+        byte[] cells = new byte[size * size];
+        Player playerX = state.getPlayerX();
+        List<Move> moves = state.getMoves();
+        for (Move move : moves) {
+            cells[move.getRow() * size + move.getColumn()] = move.getPlayer().equals(playerX) ? X : O;
+        }
+        return cells;
+    }
+
+    public static byte opponent(byte side) {
+        return side == X ? O : X;
+    }
+
+    /**
+     * Returns the length of the longest run through {@code cell} of the stone on it.
+     */
+    static int longestRun(byte[] cells, int size, int cell) {
+        byte side = cells[cell];
+        int row = cell / size;
+        int column = cell % size;
+        int longest = 0;
+        for (int[] direction : DIRECTIONS) {
+            int run = 1
+                    + count(cells, size, side, row, column, direction[0], direction[1])
+                    + count(cells, size, side, row, column, -direction[0], -direction[1]);
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    static boolean completesLine(byte[] cells, int size, int winningLength, int cell) {
+        return longestRun(cells, size, cell) >= winningLength;
+    }
+
+    /**
+     * Returns a cell that wins on the spot for {@code side}, or -1.
+     */
+    static int winningCell(byte[] cells, int size, int winningLength, byte side) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != EMPTY) {
+                continue;
+            }
+            cells[cell] = side;
+            boolean wins = completesLine(cells, size, winningLength, cell);
+            cells[cell] = EMPTY;
+            if (wins) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks a move without searching: win, block, take the centre, or else
+     * the first free cell. Returns -1 if the board is full.
+     */
+    public static int quickCell(byte[] cells, int size, int winningLength, byte side) {
+        int cell = winningCell(cells, size, winningLength, side);
+        if (cell < 0) {
+            cell = winningCell(cells, size, winningLength, opponent(side));
+        }
+        int centre = (size / 2) * size + size / 2;
+        if (cell < 0 && cells[centre] == EMPTY) {
+            cell = centre;
+        }
+        for (int i = 0; cell < 0 && i < cells.length; i++) {
+            if (cells[i] == EMPTY) {
+                cell = i;
+            }
+        }
+        return cell;
+    }
+
+    private static int count(byte[] cells, int size, byte side, int row, int column, int dRow, int dColumn) {
+        int run = 0;
+        int r = row + dRow;
+        int c = column + dColumn;
+        while (r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == side) {
+            run++;
+            r += dRow;
+            c += dColumn;
+        }
+        return run;
+    }
+}
@@ -0,0 +1,93 @@
+package ai;
+
+/**
+ * Best move for every reachable 3x3 position, found once by exhaustive
+ * minimax when the class is loaded. Positions are indexed by reading the nine
+ * cells as a base-3 number. Among equally good moves the table prefers the
+ * fastest win or the slowest loss.
+ */
+public final class PerfectPlayTable {
+    private static final int SIZE = 3;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int POSITIONS = 19683;
+    private static final int[][] LINES = {
+            {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+            {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+            {0, 4, 8}, {2, 4, 6}
+    };
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+    private static final byte[] BEST_CELL = new byte[POSITIONS];
+    private static final byte[] VALUE = new byte[POSITIONS];
+
+    static {
+        java.util.Arrays.fill(VALUE, UNSOLVED);
+        solve(new byte[CELLS], 0, 0);
+    }
+
+    private PerfectPlayTable() {
+    }
+
+    public static boolean supports(int boardSize, int winningLength) {
+        return boardSize == SIZE && winningLength == SIZE;
+    }
+
+    /**
+     * Returns the best cell (row * 3 + column) for the side to move, or -1 if
+     * the position is finished.
+     */
+    public static int bestCell(byte[] cells) {
+        return BEST_CELL[indexOf(cells)];
+    }
+
+    private static int solve(byte[] cells, int index, int stones) {
+        if (VALUE[index] != UNSOLVED) {
+            return VALUE[index];
+        }
+        byte side = stones % 2 == 0 ? Board.X : Board.O;
+        int best = Integer.MIN_VALUE;
+        int bestCell = -1;
+        int weight = 1;
+        for (int cell = 0; cell < CELLS; cell++, weight *= 3) {
+            if (cells[cell] != Board.EMPTY) {
+                continue;
+            }
+            cells[cell] = side;
+            int child = index + side * weight;
+            int score;
+            if (completesLine(cells, cell)) {
+                score = CELLS + 1 - (stones + 1);
+            } else if (stones + 1 == CELLS) {
+                score = 0;
+            } else {
+                score = -solve(cells, child, stones + 1);
+            }
+            cells[cell] = Board.EMPTY;
+            if (score > best) {
+                best = score;
+                bestCell = cell;
+            }
+        }
+        VALUE[index] = (byte) best;
+        BEST_CELL[index] = (byte) bestCell;
+        return best;
+    }
+
+    private static boolean completesLine(byte[] cells, int cell) {
+        for (int[] line : LINES) {
+            if ((line[0] == cell || line[1] == cell || line[2] == cell)
+                    && cells[line[0]] == cells[line[1]] && cells[line[1]] == cells[line[2]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(byte[] cells) {
+        int index = 0;
+        for (int cell = CELLS - 1; cell >= 0; cell--) {
+            index = index * 3 + cells[cell];
+        }
+        return index;
+    }
+}
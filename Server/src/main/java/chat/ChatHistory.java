@@ -0,0 +1,80 @@
+package chat;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * The latest frames of one room, kept encoded in a ring buffer that is
+ * allocated once. Frames are stored back to back, wrapping at the end of the
+ * ring, and the oldest are overwritten when either the message or the byte
+ * limit is reached, so a room's history never grows however much is said.
+ * Each frame remembers who sent it, so a sender is not replayed its own
+ * frames. Only used from the hub's selector thread.
+ */
+final class ChatHistory {
+    private final byte[] ring;
+    private final int[] lengths;
+    private final UUID[] senders;
+    private int oldest;
+    private int count;
+    private int oldestOffset;
+    private int usedBytes;
+
+    ChatHistory(int maxMessages, int maxBytes) {
+        this.ring = new byte[maxBytes];
+        this.lengths = new int[maxMessages];
+        this.senders = new UUID[maxMessages];
+    }
+
+    void add(ByteBuffer frame, UUID sender) {
+        int length = frame.remaining();
+        if (length > ring.length || lengths.length == 0) {
+            return;
+        }
+        while (count == lengths.length || usedBytes + length > ring.length) {
+            oldestOffset = (oldestOffset + lengths[oldest]) % ring.length;
+            usedBytes -= lengths[oldest];
+            oldest = (oldest + 1) % lengths.length;
+            count--;
+        }
+        int offset = (oldestOffset + usedBytes) % ring.length;
+        int firstPart = Math.min(length, ring.length - offset);
+        ByteBuffer source = frame.duplicate();
+        source.get(ring, offset, firstPart);
+        source.get(ring, 0, length - firstPart);
+        lengths[(oldest + count) % lengths.length] = length;
+        senders[(oldest + count) % lengths.length] = sender;
+        count++;
+        usedBytes += length;
+    }
+
+    /**
+     * Returns every retained frame not sent by {@code reader}, oldest first,
+     * in one buffer ready to be written, or null if there are none.
+     */
+    ByteBuffer replay(UUID reader) {
+        int bytes = 0;
+        for (int i = 0; i < count; i++) {
+            int entry = (oldest + i) % lengths.length;
+            if (!reader.equals(senders[entry])) {
+                bytes += lengths[entry];
+            }
+        }
+        if (bytes == 0) {
+            return null;
+        }
+        ByteBuffer frames = ByteBuffer.allocate(bytes);
+        int offset = oldestOffset;
+        for (int i = 0; i < count; i++) {
+            int entry = (oldest + i) % lengths.length;
+            int length = lengths[entry];
+            if (!reader.equals(senders[entry])) {
+                int firstPart = Math.min(length, ring.length - offset);
+                frames.put(ring, offset, firstPart);
+                frames.put(ring, 0, length - firstPart);
+            }
+            offset = (offset + length) % ring.length;
+        }
+        return frames.flip();
+    }
+}
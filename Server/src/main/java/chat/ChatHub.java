@@ -0,0 +1,335 @@
+package chat;
+
+import protocol.ChatProtocol;
+import protocol.FrameCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Chat for every room on one port and one selector thread. A client names
+ * its room in the first frame it sends, and is disconnected if the game
+ * server does not know that room; every later frame is forwarded as-is
+ * to the other connections in that room without being decoded. Room
+ * membership is only touched by the selector thread, so it needs no locking,
+ * and a forwarded frame is copied once however many connections receive it.
+ *
+ * Forwarded frames are queued on each recipient and written after the
+ * selector has handled every ready connection, so a burst goes out as one
+ * gathering write per recipient. A recipient whose socket is full is flushed
+ * again on {@code OP_WRITE}, and one with {@value #MAX_PENDING_WRITES} frames
+ * queued is disconnected.
+ *
+ * Each room also keeps its last {@code tictactoe.chatHistory} frames in a
+ * fixed-size {@link ChatHistory}, including ones sent while the sender was
+ * alone. A connection that joins, or rejoins, gets all but its player's own
+ * frames in one write before anything new. A room and its history last until
+ * the game server evicts the game room and calls {@link #closeRoom}, however
+ * often its players reconnect.
+ */
+public class ChatHub implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ChatHub.class.getName());
+    public static final int PORT = Integer.getInteger("tictactoe.chatPort", ChatProtocol.DEFAULT_PORT);
+    private static final int MAX_PENDING_WRITES = 256;
+    private static final int MAX_GATHER = 64;
+    private static final int HISTORY_MESSAGES = Integer.getInteger("tictactoe.chatHistory", 32);
+    private static final int HISTORY_BYTES = 16 * 1024;
+
+    private final int requestedPort;
+    private final Predicate<UUID> roomExists;
+    private final Map<UUID, Room> rooms;
+    private final List<Connection> pendingFlush;
+    private final Queue<UUID> closedRooms;
+    private final ByteBuffer[] gather;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Only rooms for which {@code roomExists} holds can be joined; it is
+     * called on the selector thread.
+     */
+    public ChatHub(int port, Predicate<UUID> roomExists) {
+        this.requestedPort = port;
+        this.roomExists = roomExists;
+        this.rooms = new HashMap<>();
+        this.pendingFlush = new ArrayList<>();
+        this.closedRooms = new ConcurrentLinkedQueue<>();
+        this.gather = new ByteBuffer[MAX_GATHER];
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(requestedPort));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(this::processEvents, "chat-hub");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        LOGGER.info("Chat hub listening on port " + getPort());
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Drops a room's history and disconnects its members once the game room
+     * is gone. May be called from any thread.
+     */
+    public void closeRoom(UUID roomId) {
+        closedRooms.add(roomId);
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        try {
+            if (selectorThread != null) {
+                selectorThread.join(1000);
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            }
+        } catch (IOException e) {
+            LOGGER.severe("Error closing chat hub: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processEvents() {
+        while (running) {
+            try {
+                selector.select(1000);
+                UUID closedRoom;
+                while ((closedRoom = closedRooms.poll()) != null) {
+                    removeRoom(closedRoom);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        handleAccept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            handleRead(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    } catch (IOException e) {
+                        disconnect(connection);
+                    }
+                }
+                flushPending();
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.severe("Error in chat hub event loop: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handleAccept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    private void handleRead(Connection connection) throws IOException {
+        if (connection.codec.readFrom(connection.channel) < 0) {
+            disconnect(connection);
+            return;
+        }
+        ByteBuffer frame;
+        while ((frame = connection.codec.nextFrame()) != null) {
+            handleFrame(connection, frame);
+        }
+    }
+
+    private void handleFrame(Connection connection, ByteBuffer frame) throws IOException {
+        if (connection.roomId == null) {
+            ChatProtocol.Join join = ChatProtocol.parseJoin(connection.codec.decode(frame));
+            if (join == null) {
+                throw new IOException("Expected a join message");
+            }
+            if (!roomExists.test(join.roomId())) {
+                throw new IOException("Unknown chat room " + join.roomId());
+            }
+            connection.roomId = join.roomId();
+            connection.senderId = join.senderId();
+            Room room = rooms.computeIfAbsent(join.roomId(), id -> new Room());
+            room.members.add(connection);
+            ByteBuffer replay = room.history.replay(connection.senderId);
+            if (replay != null) {
+                send(connection, replay);
+            }
+            return;
+        }
+        Room room = rooms.get(connection.roomId);
+        room.history.add(frame, connection.senderId);
+        if (room.members.size() < 2) {
+            return;
+        }
+        ByteBuffer message = ByteBuffer.allocate(frame.remaining());
+        message.put(frame).flip();
+        for (Connection member : new ArrayList<>(room.members)) {
+            if (member != connection) {
+                send(member, message.duplicate());
+            }
+        }
+    }
+
+    private void send(Connection connection, ByteBuffer message) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        if (connection.outbound.size() >= MAX_PENDING_WRITES) {
+            LOGGER.warning("Chat connection in room " + connection.roomId + " is not reading, disconnecting");
+            disconnect(connection);
+            return;
+        }
+        connection.outbound.add(message);
+        if (!connection.flushPending && (connection.key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+            connection.flushPending = true;
+            pendingFlush.add(connection);
+        }
+    }
+
+    private void flushPending() {
+        for (Connection connection : pendingFlush) {
+            connection.flushPending = false;
+            if (!connection.channel.isOpen()) {
+                continue;
+            }
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+        pendingFlush.clear();
+    }
+
+    /**
+     * Writes up to {@value #MAX_GATHER} queued frames per call and waits for
+     * {@code OP_WRITE} once the socket stops taking everything.
+     */
+    private void flush(Connection connection) throws IOException {
+        ArrayDeque<ByteBuffer> outbound = connection.outbound;
+        while (!outbound.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer frame : outbound) {
+                gather[count++] = frame;
+                if (count == gather.length) {
+                    break;
+                }
+            }
+            connection.channel.write(gather, 0, count);
+            Arrays.fill(gather, 0, count, null);
+            int written = 0;
+            while (written < count && !outbound.peek().hasRemaining()) {
+                outbound.poll();
+                written++;
+            }
+            if (written < count) {
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void removeRoom(UUID roomId) {
+        Room room = rooms.remove(roomId);
+        if (room != null) {
+            for (Connection member : new ArrayList<>(room.members)) {
+                disconnect(member);
+            }
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.roomId != null) {
+            Room room = rooms.get(connection.roomId);
+            if (room != null) {
+                room.members.remove(connection);
+            }
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            LOGGER.warning("Error closing chat connection: " + e.getMessage());
+        }
+    }
+
+    private static final class Room {
+        private final List<Connection> members;
+        private final ChatHistory history;
+
+        Room() {
+            this.members = new ArrayList<>();
+            this.history = new ChatHistory(HISTORY_MESSAGES, HISTORY_BYTES);
+        }
+    }
+
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final FrameCodec codec;
+        private final ArrayDeque<ByteBuffer> outbound;
+        private SelectionKey key;
+        private UUID roomId;
+        private UUID senderId;
+        private boolean flushPending;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.codec = new FrameCodec(false);
+            this.outbound = new ArrayDeque<>();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package controllers;
+
+import ai.AlphaBetaSearch;
+import ai.Board;
+import ai.PerfectPlayTable;
+import models.GameRoom;
+import models.GameState;
+import models.Move;
+import models.Player;
+
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The server's own player. Classic 3x3 games are answered from
+ * {@link PerfectPlayTable}; larger boards run {@link AlphaBetaSearch} under a
+ * per-move time budget. Searches run on a small fixed pool with a bounded
+ * queue so bot games cannot take threads from RMI calls. If the queue is
+ * full, a quick non-searching move is retried on the pool a little later;
+ * a room that still cannot get a worker gets that move straight from the
+ * retry thread, so a bot game never stalls.
+ */
+public class BotOpponent {
+    private static final Logger LOGGER = Logger.getLogger(BotOpponent.class.getName());
+    public static final String NAME = "TicTacToe Bot";
+    private static final long RETRY_DELAY_MILLIS = 100;
+    private static final int MAX_RETRIES = 20;
+
+    @FunctionalInterface
+    public interface MoveSink {
+        void play(GameRoom room, Move move) throws RemoteException;
+    }
+
+    private final Player player;
+    private final MoveSink moveSink;
+    private final long moveBudgetNanos;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final ThreadLocal<AlphaBetaSearch> searches;
+
+    public BotOpponent(MoveSink moveSink, Duration moveBudget, int threads, int queueCapacity) {
+        this.player = new Player(NAME, UUID.nameUUIDFromBytes(NAME.getBytes(StandardCharsets.UTF_8)));
+        this.player.setIpAddress("localhost");
+        this.moveSink = moveSink;
+        this.moveBudgetNanos = moveBudget.toNanos();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bot-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bot-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.searches = ThreadLocal.withInitial(AlphaBetaSearch::new);
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Schedules the bot's reply if it is the bot's turn in {@code room}.
+     */
+    public void requestMove(GameRoom room) {
+        if (!isBotTurn(room)) {
+            return;
+        }
+        try {
+            workers.execute(() -> play(room, true));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warning("Bot workers saturated, retrying a quick move in room " + room.getGameRoomID());
+            scheduleRetry(room, 1);
+        }
+    }
+
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private boolean isBotTurn(GameRoom room) {
+        GameState state = room.getGameState();
+        return !state.isFinished() && player.equals(state.getCurrentPlayerTurn());
+    }
+
+    private void scheduleRetry(GameRoom room, int attempt) {
+        try {
+            retries.schedule(() -> retry(room, attempt), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down.
+        }
+    }
+
+    private void retry(GameRoom room, int attempt) {
+        if (!isBotTurn(room)) {
+            return;
+        }
+        try {
+            workers.execute(() -> play(room, false));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                return;
+            }
+            if (attempt < MAX_RETRIES) {
+                scheduleRetry(room, attempt + 1);
+            } else {
+                LOGGER.warning("Bot workers still saturated, playing a quick move on the retry thread in room "
+                        + room.getGameRoomID());
+                play(room, false);
+            }
+        }
+    }
+
+    private void play(GameRoom room, boolean search) {
+        GameState state = room.getGameState();
+        int size = state.getBoardSize();
+        int winningLength = state.getWinningLength();
+        byte[] cells = Board.cellsOf(state);
+        byte side = player.equals(state.getPlayerX()) ? Board.X : Board.O;
+
+        int cell;
+        if (PerfectPlayTable.supports(size, winningLength)) {
+            cell = PerfectPlayTable.bestCell(cells);
+        } else if (search) {
+            cell = searches.get().bestCell(cells, size, winningLength, side, moveBudgetNanos);
+        } else {
+            cell = Board.quickCell(cells, size, winningLength, side);
+        }
+        if (cell < 0) {
+            return;
+        }
+
+        Move move = new Move(cell / size, cell % size, state.getMoves().size(), state.getGameID(), player);
+        try {
+            moveSink.play(room, move);
+        } catch (RemoteException e) {
+            LOGGER.warning("Bot move rejected in room " + room.getGameRoomID() + ": " + e.getMessage());
+        }
+    }
+}
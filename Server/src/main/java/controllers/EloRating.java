@@ -0,0 +1,36 @@
+package controllers;
+
+/**
+ * Standard Elo: a player's expected score against an opponent follows a
+ * logistic curve of the rating difference, and after a game the rating moves
+ * by K times the difference between the actual and the expected score.
+ */
+public final class EloRating {
+    public static final double DEFAULT_K_FACTOR = 32;
+    private static final double SCALE = 400;
+
+    private final double kFactor;
+
+    public EloRating(double kFactor) {
+        if (!(kFactor > 0)) {
+            throw new IllegalArgumentException("K factor must be positive: " + kFactor);
+        }
+        this.kFactor = kFactor;
+    }
+
+    public double getKFactor() {
+        return kFactor;
+    }
+
+    public static double expectedScore(double rating, double opponentRating) {
+        return 1 / (1 + Math.pow(10, (opponentRating - rating) / SCALE));
+    }
+
+    /**
+     * Rating change for a player who scored {@code score} (1 win, 0.5 draw,
+     * 0 loss) against the opponent. The opponent's change is the negation.
+     */
+    public double change(double rating, double opponentRating, double score) {
+        return kFactor * (score - expectedScore(rating, opponentRating));
+    }
+}
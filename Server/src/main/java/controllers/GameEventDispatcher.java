@@ -0,0 +1,154 @@
+package controllers;
+
+import interfaces.GameEventListener;
+import models.Move;
+import models.Player;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Pushes room events to remote listeners. Every listener owns a bounded queue
+ * drained on a shared worker pool, so a slow or dead client never blocks the
+ * RMI thread that published the event. A listener whose queue overflows is dropped.
+ */
+public class GameEventDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(GameEventDispatcher.class.getName());
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int WORKER_THREADS = 4;
+
+    @FunctionalInterface
+    private interface Event {
+        void deliver(GameEventListener listener) throws RemoteException;
+    }
+
+    private final Map<UUID, List<ListenerChannel>> subscriptions;
+    private final ExecutorService workers;
+
+    public GameEventDispatcher() {
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "game-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void addListener(UUID roomId, GameEventListener listener) {
+        subscriptions.computeIfAbsent(roomId, id -> new CopyOnWriteArrayList<>())
+                .add(new ListenerChannel(roomId, listener));
+    }
+
+    public void removeListener(UUID roomId, GameEventListener listener) {
+        List<ListenerChannel> channels = subscriptions.get(roomId);
+        if (channels != null) {
+            channels.removeIf(channel -> channel.listener.equals(listener));
+        }
+    }
+
+    public void removeRoom(UUID roomId) {
+        subscriptions.remove(roomId);
+    }
+
+    public void playerJoined(UUID roomId, Player player) {
+        publish(roomId, listener -> listener.onPlayerJoined(roomId, player));
+    }
+
+    public void gameStarted(UUID roomId) {
+        publish(roomId, listener -> listener.onGameStarted(roomId));
+    }
+
+    public void moveMade(UUID roomId, Move move) {
+        publish(roomId, listener -> listener.onMoveMade(roomId, move));
+    }
+
+    public void gameEnded(UUID roomId, Player winner) {
+        publish(roomId, listener -> listener.onGameEnded(roomId, winner));
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(UUID roomId, Event event) {
+        List<ListenerChannel> channels = subscriptions.get(roomId);
+        if (channels == null) {
+            return;
+        }
+        for (ListenerChannel channel : channels) {
+            channel.enqueue(event);
+        }
+    }
+
+    private void drop(ListenerChannel channel, String reason) {
+        List<ListenerChannel> channels = subscriptions.get(channel.roomId);
+        if (channels != null && channels.remove(channel)) {
+            LOGGER.warning("Dropped event listener for room " + channel.roomId + ": " + reason);
+        }
+    }
+
+    private class ListenerChannel implements Runnable {
+        private final UUID roomId;
+        private final GameEventListener listener;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean scheduled;
+
+        ListenerChannel(UUID roomId, GameEventListener listener) {
+            this.roomId = roomId;
+            this.listener = listener;
+            this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            this.scheduled = new AtomicBoolean(false);
+        }
+
+        void enqueue(Event event) {
+            if (!queue.offer(event)) {
+                drop(this, "event queue full");
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workers.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    event.deliver(listener);
+                }
+            } catch (RemoteException e) {
+                queue.clear();
+                drop(this, e.getMessage());
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -4,59 +4,162 @@ import models.GameRoom;
 import models.GameState;
 import models.Move;
 import models.Player;
+import models.PlayerStats;
+
+import persistence.PlayerStatsStore;
 
 import java.rmi.RemoteException;
+import java.util.UUID;
 import java.util.logging.Logger;
 
+/**
+ * Every command that mutates a room runs while holding that room's monitor,
+ * so moves in one room are serialised while different rooms proceed in parallel.
+ */
 public class GameRoomManager {
     private static final Logger LOGGER = Logger.getLogger(GameRoomManager.class.getName());
 
+    /**
+     * Names starting with this belong to load-test players. Their games are
+     * played normally but never reach the stats log or the leaderboard.
+     */
+    public static final String LOAD_TEST_PREFIX = "loadtest-";
+
+    public enum Departure {
+        NONE,
+        LEFT,
+        ABANDONED,
+        FORFEITED
+    }
+
+    private final PlayerStatsStore statsStore;
+    private final Leaderboard leaderboard;
+    private final EloRating elo;
+
+    public GameRoomManager(PlayerStatsStore statsStore, Leaderboard leaderboard, EloRating elo) {
+        this.statsStore = statsStore;
+        this.leaderboard = leaderboard;
+        this.elo = elo;
+    }
+
     public GameRoom createRoom(String roomName, Player owner){
         GameRoom room = new GameRoom(roomName, owner);
         LOGGER.info("Created room: " + roomName + " with owner: " + owner.getName());
         return room;
     }
 
-    public void joinRoom(GameRoom room, Player player) throws RemoteException {
-        if (room.isRoomFull()) {
-            throw new RemoteException("Room is full");
+    public GameRoom createRoom(String roomName, Player owner, int boardSize, int winningLength) throws RemoteException {
+        if (!TicTacToeRules.isValidBoard(boardSize, winningLength)) {
+            throw new RemoteException("Invalid board configuration: " + boardSize + "x" + boardSize
+                    + " with " + winningLength + " in a row");
         }
-        if (room.getRoomStatus() != GameRoom.RoomStatus.WAITING) {
-            throw new RemoteException("Game already in progress");
+        GameRoom room = new GameRoom(roomName, owner, boardSize, winningLength);
+        LOGGER.info("Created room: " + roomName + " (" + boardSize + "x" + boardSize + ", "
+                + winningLength + " in a row) with owner: " + owner.getName());
+        return room;
+    }
+
+    public void joinRoom(GameRoom room, Player player) throws RemoteException {
+        synchronized (room) {
+            if (room.isRoomFull()) {
+                throw new RemoteException("Room is full");
+            }
+            if (room.getRoomStatus() != GameRoom.RoomStatus.WAITING) {
+                throw new RemoteException("Game already in progress");
+            }
+            if (player.equals(room.getOwner())) {
+                throw new RemoteException("Player is already in this room");
+            }
+            room.addPlayer(player);
+            LOGGER.info("Player " + player.getName() + " joined room: " + room.getGameRoomName());
         }
-        room.addPlayer(player);
-        LOGGER.info("Player " + player.getName() + " joined room: " + room.getGameRoomName());
     }
 
     public void startGame(GameRoom room) throws RemoteException {
-        if (!room.isRoomFull()) {
-            throw new RemoteException("Need exactly 2 players to start the game");
+        synchronized (room) {
+            if (!room.isRoomFull()) {
+                throw new RemoteException("Need exactly 2 players to start the game");
+            }
+            room.startGame();
+            LOGGER.info("Started game in room: " + room.getGameRoomName());
         }
-        room.startGame();
-        LOGGER.info("Started game in room: " + room.getGameRoomName());
     }
 
-    public void makeMove(GameRoom room, Move move) throws RemoteException {
-        GameState state = room.getGameState();
-        if (!state.isGameStarted()) {
-            throw new RemoteException("Game has not started yet");
-        }
-        if (!TicTacToeRules.isValidMove(state, move)) {
-            throw new RemoteException("Invalid move");
+    /**
+     * Plays {@code move} and returns whether it ended the game. Decided under
+     * the room's monitor, so exactly one caller sees a game end, whether by a
+     * move or a forfeit.
+     */
+    public boolean makeMove(GameRoom room, Move move) throws RemoteException {
+        synchronized (room) {
+            GameState state = room.getGameState();
+            if (!state.isGameStarted()) {
+                throw new RemoteException("Game has not started yet");
+            }
+            if (state.isFinished()) {
+                throw new RemoteException("Game is already finished");
+            }
+            if (!TicTacToeRules.isValidMove(state, move)) {
+                throw new RemoteException("Invalid move");
+            }
+
+            state.addMove(move);
+            LOGGER.info("Move made in room " + room.getGameRoomName() + ": " + move);
+
+            Player nextPlayer = move.getPlayer().equals(state.getPlayerX()) ?
+                    state.getPlayerO() : state.getPlayerX();
+            state.setCurrentPlayerTurn(nextPlayer);
+
+            Player winner = TicTacToeRules.checkWinner(state);
+            if (winner != null) {
+                handleGameEnd(room, winner);
+                return true;
+            }
+            if (TicTacToeRules.isDraw(state)) {
+                handleGameDraw(room);
+                return true;
+            }
+            return false;
         }
+    }
 
-        state.addMove(move);
-        LOGGER.info("Move made in room " + room.getGameRoomName() + ": " + move);
-
-        Player nextPlayer = move.getPlayer().equals(state.getPlayerX()) ?
-                state.getPlayerO() : state.getPlayerX();
-        state.setCurrentPlayerTurn(nextPlayer);
-
-        Player winner = TicTacToeRules.checkWinner(state);
-        if (winner != null) {
-            handleGameEnd(room, winner);
-        } else if (TicTacToeRules.isDraw(state)) {
-            handleGameDraw(room);
+    /**
+     * Takes a player who has gone away out of the room. A running game is
+     * forfeited to the opponent and a guest leaves a waiting room; if the
+     * owner of a waiting room leaves, the caller should close it.
+     */
+    public Departure leave(GameRoom room, UUID playerId) {
+        synchronized (room) {
+            GameState state = room.getGameState();
+            Player playerX = state.getPlayerX();
+            Player playerO = state.getPlayerO();
+            boolean isX = playerX != null && playerX.getPlayerId().equals(playerId);
+            boolean isO = playerO != null && playerO.getPlayerId().equals(playerId);
+            if (!isX && !isO) {
+                return Departure.NONE;
+            }
+            switch (room.getRoomStatus()) {
+                case WAITING -> {
+                    if (isX) {
+                        return Departure.ABANDONED;
+                    }
+                    room.removePlayer(playerO);
+                    LOGGER.info("Player " + playerO.getName() + " left room: " + room.getGameRoomName());
+                    return Departure.LEFT;
+                }
+                case PLAYING -> {
+                    if (state.isFinished()) {
+                        return Departure.NONE;
+                    }
+                    LOGGER.info("Player " + (isX ? playerX : playerO).getName() + " forfeited in room: "
+                            + room.getGameRoomName());
+                    handleGameEnd(room, isX ? playerO : playerX);
+                    return Departure.FORFEITED;
+                }
+                default -> {
+                    return Departure.NONE;
+                }
+            }
         }
     }
 
@@ -64,8 +167,24 @@ public class GameRoomManager {
         GameState state = room.getGameState();
         Player loser = winner.equals(state.getPlayerX()) ? state.getPlayerO() : state.getPlayerX();
 
-        winner.getPlayerStats().incrementWins();
-        loser.getPlayerStats().incrementLosses();
+        PlayerStats winnerStats = winner.getPlayerStats();
+        PlayerStats loserStats = loser.getPlayerStats();
+        double change = elo.change(winnerStats.getRating(), loserStats.getRating(), 1);
+        winnerStats.incrementWins();
+        loserStats.incrementLosses();
+        double winnerRating = winnerStats.adjustRating(change);
+        double loserRating = loserStats.adjustRating(-change);
+        if (isRanked(state)) {
+            if (winner.equals(state.getPlayerX())) {
+                statsStore.recordGame(winner.getPlayerId(), loser.getPlayerId(),
+                        PlayerStatsStore.GameResult.X_WINS, winnerRating, loserRating);
+            } else {
+                statsStore.recordGame(loser.getPlayerId(), winner.getPlayerId(),
+                        PlayerStatsStore.GameResult.O_WINS, loserRating, winnerRating);
+            }
+            updateLeaderboard(winner);
+            updateLeaderboard(loser);
+        }
 
         state.setWinner(winner);
         state.finishGame();
@@ -77,12 +196,39 @@ public class GameRoomManager {
 
     private void handleGameDraw(GameRoom room) {
         GameState state = room.getGameState();
-        state.getPlayerX().getPlayerStats().incrementDraws();
-        state.getPlayerO().getPlayerStats().incrementDraws();
+        PlayerStats statsX = state.getPlayerX().getPlayerStats();
+        PlayerStats statsO = state.getPlayerO().getPlayerStats();
+        double change = elo.change(statsX.getRating(), statsO.getRating(), 0.5);
+        statsX.incrementDraws();
+        statsO.incrementDraws();
+        double ratingX = statsX.adjustRating(change);
+        double ratingO = statsO.adjustRating(-change);
+        if (isRanked(state)) {
+            statsStore.recordGame(state.getPlayerX().getPlayerId(), state.getPlayerO().getPlayerId(),
+                    PlayerStatsStore.GameResult.DRAW, ratingX, ratingO);
+            updateLeaderboard(state.getPlayerX());
+            updateLeaderboard(state.getPlayerO());
+        }
 
         state.finishGame();
         room.setRoomStatus(GameRoom.RoomStatus.FINISHED);
 
         LOGGER.info(String.format("Game ended in draw in room %s", room.getGameRoomName()));
     }
+
+    private void updateLeaderboard(Player player) {
+        PlayerStats stats = player.getPlayerStats();
+        synchronized (stats) {
+            leaderboard.update(player.getPlayerId(), player.getName(), Math.round(stats.getRating()),
+                    stats.getWins(), stats.getLosses(), stats.getDraws());
+        }
+    }
+
+    public static boolean isLoadTestPlayer(Player player) {
+        return player.getName().startsWith(LOAD_TEST_PREFIX);
+    }
+
+    static boolean isRanked(GameState state) {
+        return !isLoadTestPlayer(state.getPlayerX()) && !isLoadTestPlayer(state.getPlayerO());
+    }
 }
@@ -1,244 +1,612 @@
 package controllers;
 
+import chat.ChatHub;
+import interfaces.GameEventListener;
 import interfaces.GameServerInterface;
+import interfaces.SpectatorListener;
 import models.*;
+import persistence.GameHistoryStore;
+import persistence.PlayerRegistry;
+import persistence.PlayerStatsStore;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.rmi.RemoteException;
 import java.rmi.server.RemoteServer;
 import java.rmi.server.ServerNotActiveException;
 import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 public class GameServerImpl extends UnicastRemoteObject implements GameServerInterface {
     private static final Logger LOGGER = Logger.getLogger(GameServerImpl.class.getName());
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Duration DEFAULT_FINISHED_ROOM_TTL =
+            Duration.ofSeconds(Long.getLong("tictactoe.finishedRoomTtlSeconds", 60));
+    private static final Duration DEFAULT_WAITING_ROOM_IDLE_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("tictactoe.waitingRoomIdleSeconds", 120));
+    private static final Duration METRICS_DUMP_INTERVAL =
+            Duration.ofSeconds(Long.getLong("tictactoe.metricsDumpSeconds", 60));
+    private static final Path DATA_DIRECTORY = Path.of(System.getProperty("tictactoe.dataDir", "data"));
+    private static final long STATS_SNAPSHOT_RECORDS = Long.getLong("tictactoe.statsSnapshotRecords", 1_000_000);
+    private static final Duration QUICK_MATCH_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("tictactoe.quickMatchTimeoutSeconds", 30));
+    private static final double ELO_K_FACTOR =
+            Double.parseDouble(System.getProperty("tictactoe.eloK", String.valueOf(EloRating.DEFAULT_K_FACTOR)));
+    private static final int HISTORY_SEGMENT_BYTES = Integer.getInteger("tictactoe.historySegmentMB", 64) << 20;
+    private static final int PLAYER_CACHE_SIZE = Integer.getInteger("tictactoe.playerCacheSize", 10_000);
+    private static final Duration BOT_MOVE_BUDGET =
+            Duration.ofMillis(Long.getLong("tictactoe.botMoveMillis", 500));
+    private static final int BOT_THREADS =
+            Integer.getInteger("tictactoe.botThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int BOT_QUEUE_CAPACITY = Integer.getInteger("tictactoe.botQueueCapacity", 256);
+    private static final int SPECTATOR_THREADS = Integer.getInteger("tictactoe.spectatorThreads", 8);
+    private static final Duration DEFAULT_LEASE_DURATION =
+            Duration.ofSeconds(Long.getLong("tictactoe.leaseSeconds", 30));
     private final Map<UUID, GameRoom> activeRooms;
     private final Map<UUID, Player> activePlayers;
     private final GameRoomManager roomManager;
+    private final GameEventDispatcher eventDispatcher;
+    private final RoomIndex roomIndex;
+    private final RoomLifecycleManager lifecycleManager;
+    private final ServerMetrics metrics;
+    private final PlayerStatsStore statsStore;
+    private final PlayerRegistry playerRegistry;
+    private final Leaderboard leaderboard;
+    private final MatchMaker matchMaker;
+    private final GameHistoryStore gameHistory;
+    private final BotOpponent bot;
+    private final SpectatorHub spectators;
+    private final LeaseManager leases;
+    private volatile ChatHub chatHub;
 
     public GameServerImpl() throws RemoteException {
+        this(DEFAULT_FINISHED_ROOM_TTL, DEFAULT_WAITING_ROOM_IDLE_TIMEOUT);
+    }
+
+    public GameServerImpl(Duration finishedRoomTtl, Duration waitingRoomIdleTimeout) throws RemoteException {
+        this(finishedRoomTtl, waitingRoomIdleTimeout, DEFAULT_LEASE_DURATION);
+    }
+
+    public GameServerImpl(Duration finishedRoomTtl, Duration waitingRoomIdleTimeout, Duration leaseDuration)
+            throws RemoteException {
         super();
         this.activeRooms = new ConcurrentHashMap<>();
         this.activePlayers = new ConcurrentHashMap<>();
-        this.roomManager = new GameRoomManager();
+        this.bot = new BotOpponent(this::applyMove, BOT_MOVE_BUDGET, BOT_THREADS, BOT_QUEUE_CAPACITY);
+        try {
+            this.statsStore = new PlayerStatsStore(DATA_DIRECTORY.resolve("stats"), STATS_SNAPSHOT_RECORDS);
+            this.playerRegistry = new PlayerRegistry(DATA_DIRECTORY.resolve("players"), PLAYER_CACHE_SIZE);
+            this.gameHistory = new GameHistoryStore(DATA_DIRECTORY.resolve("history"), HISTORY_SEGMENT_BYTES);
+            Player botPlayer = bot.getPlayer();
+            if (!playerRegistry.resolve(botPlayer.getName(), botPlayer.getPlayerId()).equals(botPlayer.getPlayerId())) {
+                LOGGER.warning("Bot name " + botPlayer.getName() + " is already taken by a player");
+            }
+            statsStore.restoreInto(botPlayer);
+            this.leaderboard = new Leaderboard();
+            playerRegistry.forEach((playerId, name) -> {
+                PlayerStatsStore.Standing standing = statsStore.get(playerId);
+                if (standing.games() > 0) {
+                    leaderboard.update(playerId, name, Math.round(standing.rating()),
+                            standing.wins(), standing.losses(), standing.draws());
+                }
+            });
+        } catch (IOException e) {
+            throw new RemoteException("Could not open player data in " + DATA_DIRECTORY, e);
+        }
+        this.roomManager = new GameRoomManager(statsStore, leaderboard, new EloRating(ELO_K_FACTOR));
+        this.matchMaker = new MatchMaker(this::startQuickMatch, QUICK_MATCH_TIMEOUT);
+        this.eventDispatcher = new GameEventDispatcher();
+        this.spectators = new SpectatorHub(SPECTATOR_THREADS);
+        this.roomIndex = new RoomIndex();
+        this.lifecycleManager = new RoomLifecycleManager(activeRooms, this::evictRoom,
+                finishedRoomTtl, waitingRoomIdleTimeout);
+        this.leases = new LeaseManager(this::releasePlayer, leaseDuration);
+        this.metrics = new ServerMetrics(activePlayers::size, roomIndex::count,
+                lifecycleManager::getEvictedRoomCount);
+        this.metrics.registerMBean();
+        this.metrics.startSnapshotDump(METRICS_DUMP_INTERVAL);
     }
 
     @Override
-    public void registerPlayer(Player player) throws RemoteException {
-        try {
-            String clientIP = RemoteServer.getClientHost();
-            LOGGER.info("Raw client IP from RMI: " + clientIP);
-            
-            if (clientIP.startsWith("127.") || clientIP.equals("0:0:0:0:0:0:0:1") ||
-                clientIP.equals("localhost") || clientIP.equals("::1")) {
-                clientIP = "localhost";
-                LOGGER.info("Normalized localhost IP to: " + clientIP);
+    public Player registerPlayer(Player requestedPlayer) throws RemoteException {
+        return metrics.record("registerPlayer", () -> {
+            Player player;
+            if (GameRoomManager.isLoadTestPlayer(requestedPlayer)) {
+                player = new Player(requestedPlayer.getName(), requestedPlayer.getPlayerId());
+            } else {
+                try {
+                    player = new Player(requestedPlayer.getName(),
+                            playerRegistry.resolve(requestedPlayer.getName(), requestedPlayer.getPlayerId()));
+                } catch (IllegalArgumentException e) {
+                    throw new RemoteException(e.getMessage());
+                } catch (IOException e) {
+                    throw new RemoteException("Could not register player", e);
+                }
+                if (player.equals(bot.getPlayer())) {
+                    throw new RemoteException("Name " + requestedPlayer.getName() + " is reserved");
+                }
+                statsStore.restoreInto(player);
             }
+            try {
+                String clientIP = RemoteServer.getClientHost();
+                LOGGER.info("Raw client IP from RMI: " + clientIP);
             
-            player.setIpAddress(clientIP);
-            activePlayers.put(player.getPlayerId(), player);
-            LOGGER.info("Player registered: " + player.getName() + " from IP: " + clientIP);
-        } catch (ServerNotActiveException e) {
-            LOGGER.warning("Could not get client IP, defaulting to localhost: " + e.getMessage());
-            player.setIpAddress("localhost");
-            activePlayers.put(player.getPlayerId(), player);
-        }
+                if (clientIP.startsWith("127.") || clientIP.equals("0:0:0:0:0:0:0:1") ||
+                    clientIP.equals("localhost") || clientIP.equals("::1")) {
+                    clientIP = "localhost";
+                    LOGGER.info("Normalized localhost IP to: " + clientIP);
+                }
+            
+                player.setIpAddress(clientIP);
+                activePlayers.put(player.getPlayerId(), player);
+                LOGGER.info("Player registered: " + player.getName() + " from IP: " + clientIP);
+            } catch (ServerNotActiveException e) {
+                LOGGER.warning("Could not get client IP, defaulting to localhost: " + e.getMessage());
+                player.setIpAddress("localhost");
+                activePlayers.put(player.getPlayerId(), player);
+            }
+            leases.open(player.getPlayerId());
+            return player;
+        });
     }
 
     @Override
     public void unregisterPlayer(Player player) throws RemoteException {
-        activePlayers.remove(player.getPlayerId());
-        LOGGER.info("Player unregistered: " + player.getName());
+        metrics.record("unregisterPlayer", () -> {
+            releasePlayer(player.getPlayerId(), leases.close(player.getPlayerId()));
+            LOGGER.info("Player unregistered: " + player.getName());
+        });
     }
 
     @Override
-    public UUID createRoom(String roomName, Player ownerPlayer) throws RemoteException {
-        Player storedPlayer = activePlayers.get(ownerPlayer.getPlayerId());
-        if (storedPlayer == null) {
-            throw new RemoteException("Player not registered");
+    public long renewLease(UUID playerId) throws RemoteException {
+        return metrics.record("renewLease", () -> {
+            if (!leases.renew(playerId)) {
+                throw new RemoteException("Player not registered");
+            }
+            return leases.getLeaseDuration().toMillis();
+        });
+    }
+
+    /**
+     * Forgets a player who unregistered or whose lease expired: a running
+     * game is forfeited, a waiting room it owns is closed and a waiting room
+     * it joined gets its seat back.
+     */
+    private void releasePlayer(UUID playerId, Set<UUID> roomIds) {
+        Player player = activePlayers.remove(playerId);
+        if (player != null) {
+            matchMaker.cancel(player);
+        }
+        for (UUID roomId : roomIds) {
+            GameRoom room = activeRooms.get(roomId);
+            if (room == null) {
+                continue;
+            }
+            switch (roomManager.leave(room, playerId)) {
+                case LEFT -> roomIndex.update(room);
+                case ABANDONED -> {
+                    lifecycleManager.forget(roomId);
+                    evictRoom(roomId);
+                }
+                case FORFEITED -> gameFinished(room);
+                case NONE -> {
+                }
+            }
         }
+    }
+
+    @Override
+    public UUID createRoom(String roomName, Player ownerPlayer) throws RemoteException {
+        return metrics.record("createRoom", () -> {
+            Player storedPlayer = activePlayers.get(ownerPlayer.getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
         
-        GameRoom room = roomManager.createRoom(roomName, storedPlayer);
+            return addRoom(roomManager.createRoom(roomName, storedPlayer));
+        });
+    }
+
+    @Override
+    public UUID createRoom(String roomName, Player ownerPlayer, int boardSize, int winningLength) throws RemoteException {
+        return metrics.record("createRoom", () -> {
+            Player storedPlayer = activePlayers.get(ownerPlayer.getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
+
+            return addRoom(roomManager.createRoom(roomName, storedPlayer, boardSize, winningLength));
+        });
+    }
+
+    @Override
+    public UUID quickMatch(Player player) throws RemoteException {
+        return metrics.record("quickMatch", () -> {
+            Player storedPlayer = activePlayers.get(player.getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
+            return matchMaker.match(storedPlayer);
+        });
+    }
+
+    private UUID startQuickMatch(Player first, Player second) throws RemoteException {
+        GameRoom room = roomManager.createRoom("Quick match: " + first.getName() + " vs " + second.getName(), first);
+        roomManager.joinRoom(room, second);
+        roomManager.startGame(room);
+        return addRoom(room);
+    }
+
+    @Override
+    public UUID playAgainstBot(Player player, int boardSize, int winningLength) throws RemoteException {
+        return metrics.record("playAgainstBot", () -> {
+            Player storedPlayer = activePlayers.get(player.getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
+            GameRoom room = roomManager.createRoom(storedPlayer.getName() + " vs " + BotOpponent.NAME,
+                    storedPlayer, boardSize, winningLength);
+            roomManager.joinRoom(room, bot.getPlayer());
+            roomManager.startGame(room);
+            return addRoom(room);
+        });
+    }
+
+    private UUID addRoom(GameRoom room) {
         activeRooms.put(room.getGameRoomID(), room);
+        for (Player player : playersOf(room)) {
+            leases.joined(player.getPlayerId(), room.getGameRoomID());
+        }
+        roomIndex.update(room);
+        lifecycleManager.roomCreated(room.getGameRoomID());
         return room.getGameRoomID();
     }
 
+    private static List<Player> playersOf(GameRoom room) {
+        GameState state = room.getGameState();
+        return Stream.of(state.getPlayerX(), state.getPlayerO()).filter(Objects::nonNull).toList();
+    }
+
+    private void evictRoom(UUID roomId) {
+        GameRoom room = activeRooms.remove(roomId);
+        if (room != null) {
+            for (Player player : playersOf(room)) {
+                leases.left(player.getPlayerId(), roomId);
+            }
+        }
+        roomIndex.remove(roomId);
+        eventDispatcher.removeRoom(roomId);
+        spectators.removeRoom(roomId);
+        ChatHub hub = chatHub;
+        if (hub != null) {
+            hub.closeRoom(roomId);
+        }
+    }
+
+    /**
+     * Sends chat clients to {@code hub}, which must already be started.
+     */
+    public void setChatHub(ChatHub hub) {
+        this.chatHub = hub;
+    }
+
+    /**
+     * Returns whether {@code roomId} names a room the server still holds.
+     */
+    public boolean hasRoom(UUID roomId) {
+        return activeRooms.containsKey(roomId);
+    }
+
+    public long getEvictedRoomCount() {
+        return lifecycleManager.getEvictedRoomCount();
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void shutdown() {
+        lifecycleManager.shutdown();
+        leases.shutdown();
+        eventDispatcher.shutdown();
+        spectators.shutdown();
+        metrics.shutdown();
+        bot.shutdown();
+        statsStore.close();
+        playerRegistry.close();
+        gameHistory.close();
+    }
+
     @Override
     public void joinRoom(UUID gameRoomID, Player player) throws RemoteException {
-        GameRoom room = activeRooms.get(gameRoomID);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
+        metrics.record("joinRoom", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
         
-        Player storedPlayer = activePlayers.get(player.getPlayerId());
-        if (storedPlayer == null) {
-            throw new RemoteException("Player not registered");
-        }
+            Player storedPlayer = activePlayers.get(player.getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
         
-        try {
-            String clientIP = RemoteServer.getClientHost();
-            if (clientIP.startsWith("127.") || clientIP.equals("0:0:0:0:0:0:0:1") || 
-                clientIP.equals("localhost") || clientIP.equals("::1")) {
-                clientIP = "localhost";
-            }
-            storedPlayer.setIpAddress(clientIP);
-            LOGGER.info("Updated player IP before joining room: " + storedPlayer.getName() + " IP: " + clientIP);
-        } catch (ServerNotActiveException e) {
-            LOGGER.warning("Could not update player IP, using localhost");
-            storedPlayer.setIpAddress("localhost");
-        }
+            try {
+                String clientIP = RemoteServer.getClientHost();
+                if (clientIP.startsWith("127.") || clientIP.equals("0:0:0:0:0:0:0:1") || 
+                    clientIP.equals("localhost") || clientIP.equals("::1")) {
+                    clientIP = "localhost";
+                }
+                storedPlayer.setIpAddress(clientIP);
+                LOGGER.info("Updated player IP before joining room: " + storedPlayer.getName() + " IP: " + clientIP);
+            } catch (ServerNotActiveException e) {
+                LOGGER.warning("Could not update player IP, using localhost");
+                storedPlayer.setIpAddress("localhost");
+            }
         
-        roomManager.joinRoom(room, storedPlayer);
+            roomManager.joinRoom(room, storedPlayer);
+            leases.joined(storedPlayer.getPlayerId(), gameRoomID);
+            lifecycleManager.touch(gameRoomID);
+            eventDispatcher.playerJoined(gameRoomID, storedPlayer);
+        });
     }
 
     @Override
     public void startGame(UUID gameRoomID) throws RemoteException {
-        GameRoom room = activeRooms.get(gameRoomID);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
+        metrics.record("startGame", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
         
-        Player playerX = room.getGameState().getPlayerX();
-        Player playerO = room.getGameState().getPlayerO();
+            Player playerX = room.getGameState().getPlayerX();
+            Player playerO = room.getGameState().getPlayerO();
         
-        if (playerX != null && playerX.getIpAddress() == null) {
-            playerX.setIpAddress("localhost");
-            LOGGER.info("Set missing IP for player X: " + playerX.getName());
-        }
-        if (playerO != null && playerO.getIpAddress() == null) {
-            playerO.setIpAddress("localhost");
-            LOGGER.info("Set missing IP for player O: " + playerO.getName());
-        }
+            if (playerX != null && playerX.getIpAddress() == null) {
+                playerX.setIpAddress("localhost");
+                LOGGER.info("Set missing IP for player X: " + playerX.getName());
+            }
+            if (playerO != null && playerO.getIpAddress() == null) {
+                playerO.setIpAddress("localhost");
+                LOGGER.info("Set missing IP for player O: " + playerO.getName());
+            }
         
-        roomManager.startGame(room);
+            roomManager.startGame(room);
+            roomIndex.update(room);
+            eventDispatcher.gameStarted(gameRoomID);
+        });
     }
 
     @Override
     public void makeMove(UUID gameRoomID, Move move) throws RemoteException {
-        GameRoom room = activeRooms.get(gameRoomID);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
+        metrics.record("makeMove", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
         
-        Player storedPlayer = activePlayers.get(move.getPlayer().getPlayerId());
-        if (storedPlayer == null) {
-            throw new RemoteException("Player not registered");
-        }
+            Player storedPlayer = activePlayers.get(move.getPlayer().getPlayerId());
+            if (storedPlayer == null) {
+                throw new RemoteException("Player not registered");
+            }
         
-        Move updatedMove = new Move(
-            move.getRow(),
-            move.getColumn(),
-            move.getMoveID(),
-            move.getGameID(),
-            storedPlayer
-        );
+            Move updatedMove = new Move(
+                move.getRow(),
+                move.getColumn(),
+                move.getMoveID(),
+                move.getGameID(),
+                storedPlayer
+            );
         
-        roomManager.makeMove(room, updatedMove);
+            applyMove(room, updatedMove);
+            bot.requestMove(room);
+        });
+    }
+
+    private void applyMove(GameRoom room, Move move) throws RemoteException {
+        UUID gameRoomID = room.getGameRoomID();
+        boolean finished = roomManager.makeMove(room, move);
+        eventDispatcher.moveMade(gameRoomID, move);
+
+        if (finished) {
+            gameFinished(room);
+        } else {
+            spectators.roomChanged(gameRoomID);
+        }
+    }
+
+    private void gameFinished(GameRoom room) {
+        UUID gameRoomID = room.getGameRoomID();
+        GameState state = room.getGameState();
+        roomIndex.update(room);
+        lifecycleManager.roomFinished(gameRoomID);
+        eventDispatcher.gameEnded(gameRoomID, state.getWinner());
+        if (GameRoomManager.isRanked(state)) {
+            recordHistory(state);
+        }
+        spectators.roomChanged(gameRoomID);
+    }
+
+    private void recordHistory(GameState state) {
+        try {
+            gameHistory.append(state);
+        } catch (IOException e) {
+            LOGGER.severe("Failed to record history of game " + state.getGameID() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public ArrayList<GameHistoryEntry> getGameHistory(UUID playerId, long beforeHistoryId, int limit)
+            throws RemoteException {
+        return metrics.record("getGameHistory", () -> {
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new RemoteException("Invalid page request: limit " + limit);
+            }
+            try {
+                return new ArrayList<>(gameHistory.playerGames(playerId, beforeHistoryId, limit));
+            } catch (IOException e) {
+                throw new RemoteException(e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public GameState replayGame(long historyId) throws RemoteException {
+        return metrics.record("replayGame", () -> {
+            try {
+                return gameHistory.replay(historyId);
+            } catch (IOException e) {
+                throw new RemoteException(e.getMessage());
+            }
+        });
     }
 
     @Override
     public GameState getGameState(UUID gameRoomID) throws RemoteException {
-        GameRoom room = activeRooms.get(gameRoomID);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
-        return room.getGameState();
+        return metrics.record("getGameState", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
+            return room.getGameState();
+        });
+    }
+
+    @Override
+    public GameStateDelta getGameStateSince(UUID gameRoomID, int moveCount) throws RemoteException {
+        return metrics.record("getGameStateSince", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
+            return GameStateDelta.since(room.getGameState(), moveCount);
+        });
     }
 
     @Override
     public ArrayList<GameRoom> getActiveRooms() throws RemoteException {
-        return new ArrayList<>(activeRooms.values());
+        return metrics.record("getActiveRooms", () -> {
+            return new ArrayList<>(activeRooms.values());
+        });
     }
 
     @Override
-    public GameRoom getRoomInfo(UUID roomID) throws RemoteException {
-        return activeRooms.get(roomID);
+    public ArrayList<RoomSummary> listWaitingRooms(int offset, int limit) throws RemoteException {
+        return metrics.record("listWaitingRooms", () -> {
+            checkPage(offset, limit);
+            return roomIndex.list(GameRoom.RoomStatus.WAITING, offset, limit);
+        });
     }
 
     @Override
-    public String getOpponentIP(UUID roomId, Player player) throws RemoteException {
-        GameRoom room = activeRooms.get(roomId);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
+    public ArrayList<RoomSummary> listRooms(GameRoom.RoomStatus status, int offset, int limit) throws RemoteException {
+        return metrics.record("listRooms", () -> {
+            if (status == null) {
+                throw new RemoteException("Invalid room listing: no status given");
+            }
+            checkPage(offset, limit);
+            return roomIndex.list(status, offset, limit);
+        });
+    }
 
-        Player playerX = room.getGameState().getPlayerX();
-        Player playerO = room.getGameState().getPlayerO();
-        
-        if (playerX == null || playerO == null) {
-            throw new RemoteException("Both players must be connected");
+    private static void checkPage(int offset, int limit) throws RemoteException {
+        if (offset < 0 || limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new RemoteException("Invalid page request: offset " + offset + ", limit " + limit);
         }
+    }
 
-        String ipX = playerX.getIpAddress();
-        String ipO = playerO.getIpAddress();
-        
-        LOGGER.info("Player X (" + playerX.getName() + ") IP: " + ipX);
-        LOGGER.info("Player O (" + playerO.getName() + ") IP: " + ipO);
-        
-        if (ipX == null) {
-            ipX = "localhost";
-            playerX.setIpAddress(ipX);
-            LOGGER.info("Set missing IP for player X to localhost");
-        }
-        if (ipO == null) {
-            ipO = "localhost";
-            playerO.setIpAddress(ipO);
-            LOGGER.info("Set missing IP for player O to localhost");
-        }
+    @Override
+    public GameRoom getRoomInfo(UUID roomID) throws RemoteException {
+        return metrics.record("getRoomInfo", () -> {
+            lifecycleManager.touch(roomID);
+            return activeRooms.get(roomID);
+        });
+    }
 
-        if (ipX.startsWith("127.") || ipX.equals("0:0:0:0:0:0:0:1") ||
-            ipX.equals("localhost") || ipX.equals("::1") ||
-            ipO.startsWith("127.") || ipO.equals("0:0:0:0:0:0:0:1") || 
-            ipO.equals("localhost") || ipO.equals("::1")) {
-            LOGGER.info("Local game detected, using localhost");
-            return "localhost";
-        }
+    @Override
+    public int getChatPort() throws RemoteException {
+        return metrics.record("getChatPort", () -> {
+            ChatHub hub = chatHub;
+            if (hub == null) {
+                throw new RemoteException("Chat is not available");
+            }
+            return hub.getPort();
+        });
+    }
 
-        if (player.equals(playerX)) {
-            return ipO;
-        } else if (player.equals(playerO)) {
-            return ipX;
-        } else {
-            throw new RemoteException("Player not in this game");
-        }
+    @Override
+    public Player getUpdatedPlayer(UUID playerId) throws RemoteException {
+        return metrics.record("getUpdatedPlayer", () -> {
+            Player player = activePlayers.get(playerId);
+            if (player == null) {
+                throw new RemoteException("Player not found");
+            }
+            return player;
+        });
     }
 
     @Override
-    public int getPort(UUID gameRoomID, Player player) throws RemoteException {
-        GameRoom room = activeRooms.get(gameRoomID);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
-        Player playerX = room.getGameState().getPlayerX();
-        int port = playerX.getCHAT_PORT();
-        LOGGER.info("Returning chat port: " + port + " for room: " + gameRoomID);
-        return port;
+    public ArrayList<LeaderboardEntry> getTopPlayers(int count) throws RemoteException {
+        return metrics.record("getTopPlayers", () -> {
+            if (count <= 0 || count > MAX_PAGE_SIZE) {
+                throw new RemoteException("Invalid leaderboard size: " + count);
+            }
+            return leaderboard.getTop(count);
+        });
     }
 
     @Override
-    public void setOwnerPort(UUID roomId, Player owner, int port) throws RemoteException {
-        GameRoom room = activeRooms.get(roomId);
-        if (room == null) {
-            throw new RemoteException("Room not found");
-        }
-        if (!room.getOwner().equals(owner)) {
-            throw new RemoteException("Only room owner can set port");
-        }
-        
-        Player serverOwner = room.getGameState().getPlayerX();
-        serverOwner.setCHAT_PORT(port);
-        LOGGER.info("Set chat port: " + port + " for room: " + roomId + " owner: " + serverOwner.getName());
+    public int getRank(UUID playerId) throws RemoteException {
+        return metrics.record("getRank", () -> {
+            return leaderboard.getRank(playerId);
+        });
     }
 
     @Override
-    public Player getUpdatedPlayer(UUID playerId) throws RemoteException {
-        Player player = activePlayers.get(playerId);
-        if (player == null) {
-            throw new RemoteException("Player not found");
-        }
-        return player;
+    public void addGameEventListener(UUID gameRoomID, GameEventListener listener) throws RemoteException {
+        metrics.record("addGameEventListener", () -> {
+            if (!activeRooms.containsKey(gameRoomID)) {
+                throw new RemoteException("Room not found");
+            }
+            lifecycleManager.touch(gameRoomID);
+            eventDispatcher.addListener(gameRoomID, listener);
+        });
+    }
+
+    @Override
+    public void watchRoom(UUID gameRoomID, SpectatorListener listener) throws RemoteException {
+        metrics.record("watchRoom", () -> {
+            GameRoom room = activeRooms.get(gameRoomID);
+            if (room == null) {
+                throw new RemoteException("Room not found");
+            }
+            if (!room.getGameState().isGameStarted()) {
+                throw new RemoteException("Game has not started yet");
+            }
+            spectators.watch(room, listener);
+        });
+    }
+
+    @Override
+    public void stopWatching(UUID gameRoomID, SpectatorListener listener) throws RemoteException {
+        metrics.record("stopWatching", () -> {
+            spectators.unwatch(gameRoomID, listener);
+        });
+    }
+
+    @Override
+    public void removeGameEventListener(UUID gameRoomID, GameEventListener listener) throws RemoteException {
+        metrics.record("removeGameEventListener", () -> {
+            eventDispatcher.removeListener(gameRoomID, listener);
+        });
     }
 }
@@ -0,0 +1,188 @@
+package controllers;
+
+import models.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Players ordered by rating, highest first, in a treap where every node also
+ * stores the size of its subtree. That makes updates, rank lookups and the
+ * start of a top-N walk logarithmic in the number of ranked players. Players
+ * with equal (rounded) ratings share a rank.
+ */
+public class Leaderboard {
+    private final Map<UUID, Node> nodes;
+    private Node root;
+
+    public Leaderboard() {
+        this.nodes = new HashMap<>();
+    }
+
+    public synchronized void update(UUID playerId, String playerName, long score, int wins, int losses, int draws) {
+        Node previous = nodes.remove(playerId);
+        if (previous != null) {
+            root = remove(root, previous);
+        }
+        Node node = new Node(playerId, playerName, score, wins, losses, draws);
+        nodes.put(playerId, node);
+        root = insert(root, node);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the player's 1-based rank, or 0 if the player has not finished a game.
+     */
+    public synchronized int getRank(UUID playerId) {
+        Node node = nodes.get(playerId);
+        return node == null ? 0 : countHigher(node.score) + 1;
+    }
+
+    public synchronized ArrayList<LeaderboardEntry> getTop(int count) {
+        ArrayList<LeaderboardEntry> top = new ArrayList<>(Math.min(count, nodes.size()));
+        collect(root, count, top);
+        return top;
+    }
+
+    private void collect(Node node, int count, ArrayList<LeaderboardEntry> top) {
+        if (node == null || top.size() >= count) {
+            return;
+        }
+        collect(node.left, count, top);
+        if (top.size() < count) {
+            LeaderboardEntry last = top.isEmpty() ? null : top.get(top.size() - 1);
+            int rank = last != null && last.getScore() == node.score ? last.getRank() : top.size() + 1;
+            top.add(new LeaderboardEntry(rank, node.playerId, node.playerName, node.score,
+                    node.wins, node.losses, node.draws));
+            collect(node.right, count, top);
+        }
+    }
+
+    private int countHigher(long score) {
+        int higher = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                higher += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return higher;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.compareTo(node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node remove(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = removed.compareTo(node);
+        if (comparison < 0) {
+            node.left = remove(node.left, removed);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, removed);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.updateSize();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node implements Comparable<Node> {
+        private final UUID playerId;
+        private final String playerName;
+        private final long score;
+        private final int wins;
+        private final int losses;
+        private final int draws;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+
+        Node(UUID playerId, String playerName, long score, int wins, int losses, int draws) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.score = score;
+            this.wins = wins;
+            this.losses = losses;
+            this.draws = draws;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+
+        void updateSize() {
+            size = 1 + Leaderboard.size(left) + Leaderboard.size(right);
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byScore = Long.compare(other.score, score);
+            return byScore != 0 ? byScore : playerId.compareTo(other.playerId);
+        }
+    }
+}
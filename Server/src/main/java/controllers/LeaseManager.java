@@ -0,0 +1,172 @@
+package controllers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a renewable lease for every registered player and notices clients
+ * that stopped renewing. As in {@link RoomLifecycleManager}, each lease has at
+ * most one pending deadline in a delay queue and a renewal only records a
+ * timestamp, so a heartbeat is a single volatile write and nothing ever scans
+ * all players. Each lease also remembers the rooms its player is in, and
+ * those rooms are handed to the expiry handler when the lease runs out.
+ */
+public class LeaseManager {
+    private static final Logger LOGGER = Logger.getLogger(LeaseManager.class.getName());
+
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        void expired(UUID playerId, Set<UUID> roomIds);
+    }
+
+    private final ExpiryHandler expiryHandler;
+    private final long leaseNanos;
+    private final Map<UUID, Lease> leases;
+    private final DelayQueue<Expiry> expiries;
+    private final AtomicLong expiredLeases;
+    private final Thread reaperThread;
+
+    public LeaseManager(ExpiryHandler expiryHandler, Duration leaseDuration) {
+        this.expiryHandler = expiryHandler;
+        this.leaseNanos = leaseDuration.toNanos();
+        this.leases = new ConcurrentHashMap<>();
+        this.expiries = new DelayQueue<>();
+        this.expiredLeases = new AtomicLong();
+        this.reaperThread = new Thread(this::reap, "lease-reaper");
+        this.reaperThread.setDaemon(true);
+        this.reaperThread.start();
+    }
+
+    public void open(UUID playerId) {
+        long now = System.nanoTime();
+        Lease lease = leases.computeIfAbsent(playerId, id -> {
+            Lease created = new Lease(now);
+            expiries.add(new Expiry(id, created, now + leaseNanos));
+            return created;
+        });
+        lease.renewedAt = now;
+    }
+
+    /**
+     * Returns false if the player has no lease, either because it never
+     * registered or because its lease already expired.
+     */
+    public boolean renew(UUID playerId) {
+        Lease lease = leases.get(playerId);
+        if (lease == null) {
+            return false;
+        }
+        lease.renewedAt = System.nanoTime();
+        return true;
+    }
+
+    public void joined(UUID playerId, UUID roomId) {
+        Lease lease = leases.get(playerId);
+        if (lease != null) {
+            lease.rooms.add(roomId);
+        }
+    }
+
+    public void left(UUID playerId, UUID roomId) {
+        Lease lease = leases.get(playerId);
+        if (lease != null) {
+            lease.rooms.remove(roomId);
+        }
+    }
+
+    /**
+     * Ends the player's lease and returns the rooms it was in.
+     */
+    public Set<UUID> close(UUID playerId) {
+        Lease lease = leases.remove(playerId);
+        return lease == null ? Set.of() : lease.rooms;
+    }
+
+    public Duration getLeaseDuration() {
+        return Duration.ofNanos(leaseNanos);
+    }
+
+    public int getLeaseCount() {
+        return leases.size();
+    }
+
+    public long getExpiredLeaseCount() {
+        return expiredLeases.get();
+    }
+
+    public void shutdown() {
+        reaperThread.interrupt();
+    }
+
+    private void reap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                handleExpiry(expiries.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Lease reaper error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleExpiry(Expiry expiry) {
+        Lease lease = expiry.lease;
+        long deadline = lease.renewedAt + leaseNanos;
+        if (deadline - System.nanoTime() > 0) {
+            if (leases.get(expiry.playerId) == lease) {
+                expiries.add(new Expiry(expiry.playerId, lease, deadline));
+            }
+            return;
+        }
+        if (leases.remove(expiry.playerId, lease)) {
+            long total = expiredLeases.incrementAndGet();
+            LOGGER.info("Lease of player " + expiry.playerId + " expired with " + lease.rooms.size()
+                    + " open rooms (expired so far: " + total + ")");
+            expiryHandler.expired(expiry.playerId, lease.rooms);
+        }
+    }
+
+    private static final class Lease {
+        private final Set<UUID> rooms;
+        private volatile long renewedAt;
+
+        Lease(long renewedAt) {
+            this.rooms = ConcurrentHashMap.newKeySet();
+            this.renewedAt = renewedAt;
+        }
+    }
+
+    private static final class Expiry implements Delayed {
+        private final UUID playerId;
+        private final Lease lease;
+        private final long deadlineNanos;
+
+        Expiry(UUID playerId, Lease lease, long deadlineNanos) {
+            this.playerId = playerId;
+            this.lease = lease;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Expiry expiry) {
+                return Long.compare(deadlineNanos - expiry.deadlineNanos, 0);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
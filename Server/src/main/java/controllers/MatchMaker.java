@@ -0,0 +1,99 @@
+package controllers;
+
+import models.Player;
+
+import java.rmi.RemoteException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pairs quick-match requests two at a time. Whenever two requests are
+ * outstanding they are paired immediately, so at most one player is ever
+ * waiting and the whole queue is a single atomically swapped slot. The second
+ * arrival starts the game on its own thread and hands the room id to the
+ * waiting player; neither side looks at the lobby.
+ */
+public class MatchMaker {
+
+    @FunctionalInterface
+    public interface Pairing {
+        UUID start(Player first, Player second) throws RemoteException;
+    }
+
+    private record Ticket(Player player, CompletableFuture<UUID> room) {
+    }
+
+    private final AtomicReference<Ticket> waiting;
+    private final Pairing pairing;
+    private final long timeoutNanos;
+
+    public MatchMaker(Pairing pairing, Duration timeout) {
+        this.waiting = new AtomicReference<>();
+        this.pairing = pairing;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public UUID match(Player player) throws RemoteException {
+        Ticket ticket = new Ticket(player, new CompletableFuture<>());
+        while (true) {
+            Ticket current = waiting.get();
+            if (current == null) {
+                if (waiting.compareAndSet(null, ticket)) {
+                    return await(ticket);
+                }
+            } else if (current.player().equals(player)) {
+                if (waiting.compareAndSet(current, ticket)) {
+                    current.room().completeExceptionally(new RemoteException("Quick match request superseded"));
+                    return await(ticket);
+                }
+            } else if (waiting.compareAndSet(current, null)) {
+                return pair(current, player);
+            }
+        }
+    }
+
+    public void cancel(Player player) {
+        Ticket current = waiting.get();
+        if (current != null && current.player().equals(player) && waiting.compareAndSet(current, null)) {
+            current.room().completeExceptionally(new RemoteException("Quick match cancelled"));
+        }
+    }
+
+    private UUID pair(Ticket first, Player second) throws RemoteException {
+        try {
+            UUID roomId = pairing.start(first.player(), second);
+            first.room().complete(roomId);
+            return roomId;
+        } catch (RemoteException | RuntimeException e) {
+            first.room().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private UUID await(Ticket ticket) throws RemoteException {
+        try {
+            try {
+                return ticket.room().get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (waiting.compareAndSet(ticket, null)) {
+                    throw new RemoteException("No opponent found");
+                }
+                return ticket.room().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            waiting.compareAndSet(ticket, null);
+            throw new RemoteException("Quick match interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RemoteException remoteException) {
+                throw remoteException;
+            }
+            throw new RemoteException("Quick match failed", e.getCause());
+        }
+    }
+}
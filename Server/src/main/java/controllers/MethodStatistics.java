@@ -0,0 +1,59 @@
+package controllers;
+
+import java.beans.ConstructorProperties;
+
+public class MethodStatistics {
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"method", "calls", "errors", "p50Micros", "p99Micros", "p999Micros", "maxMicros"})
+    public MethodStatistics(String method, long calls, long errors,
+                            long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getP999Micros() {
+        return p999Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s calls=%d errors=%d p50=%dus p99=%dus p999=%dus max=%dus",
+                method, calls, errors, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
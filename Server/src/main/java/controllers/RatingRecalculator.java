@@ -0,0 +1,177 @@
+package controllers;
+
+import models.PlayerStats;
+import persistence.PlayerStatsStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.zip.CRC32;
+
+/**
+ * Recomputes every player's rating from the game results log, for use after
+ * the rating parameters change. Elo depends on the order of games, so the
+ * rating pass itself is a single sequential loop over primitive arrays; the
+ * expensive part, checksumming and decoding the log and mapping player ids to
+ * array indexes, is split across a fork/join pool.
+ *
+ * Run with the server stopped:
+ * {@code java -cp Server.jar controllers.RatingRecalculator --dataDir=data --k=24}
+ */
+public final class RatingRecalculator {
+    private static final int RECORD_SIZE = PlayerStatsStore.RESULT_RECORD_SIZE;
+    private static final int RECORDS_PER_MAPPING = Integer.MAX_VALUE / RECORD_SIZE;
+    private static final int DECODE_THRESHOLD = 1 << 16;
+
+    private final EloRating elo;
+    private final ForkJoinPool pool;
+
+    public RatingRecalculator(EloRating elo, ForkJoinPool pool) {
+        this.elo = elo;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dataDirectory = Path.of(System.getProperty("tictactoe.dataDir", "data"));
+        double kFactor = EloRating.DEFAULT_K_FACTOR;
+        for (String arg : args) {
+            if (arg.startsWith("--dataDir=")) {
+                dataDirectory = Path.of(arg.substring("--dataDir=".length()));
+            } else if (arg.startsWith("--k=")) {
+                kFactor = Double.parseDouble(arg.substring("--k=".length()));
+            }
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(dataDirectory.resolve("stats"), Long.MAX_VALUE)) {
+            long start = System.nanoTime();
+            RatingRecalculator recalculator =
+                    new RatingRecalculator(new EloRating(kFactor), ForkJoinPool.commonPool());
+            Map<UUID, Double> ratings = recalculator.recompute(store.getResultsLog());
+            store.replaceRatings(ratings);
+            System.out.printf("Recomputed ratings for %d players with K=%.1f in %d ms%n",
+                    ratings.size(), kFactor, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public Map<UUID, Double> recompute(Path resultsLog) throws IOException {
+        try (FileChannel channel = FileChannel.open(resultsLog, StandardOpenOption.READ)) {
+            long recordCount = channel.size() / RECORD_SIZE;
+            if (recordCount > Integer.MAX_VALUE) {
+                throw new IOException("Too many results to recompute in one pass: " + recordCount);
+            }
+            List<MappedByteBuffer> mappings = new ArrayList<>();
+            for (long first = 0; first < recordCount; first += RECORDS_PER_MAPPING) {
+                long records = Math.min(RECORDS_PER_MAPPING, recordCount - first);
+                mappings.add(channel.map(FileChannel.MapMode.READ_ONLY,
+                        first * RECORD_SIZE, records * RECORD_SIZE));
+            }
+
+            Results results = new Results((int) recordCount);
+            pool.invoke(new DecodeTask(mappings, results, 0, (int) recordCount));
+            int valid = (int) Math.min(recordCount, results.firstCorrupt.get());
+            return rate(results, valid);
+        }
+    }
+
+    private Map<UUID, Double> rate(Results results, int games) {
+        double[] ratings = new double[results.nextIndex.get()];
+        Arrays.fill(ratings, PlayerStats.INITIAL_RATING);
+        PlayerStatsStore.GameResult[] outcomes = PlayerStatsStore.GameResult.values();
+        for (int game = 0; game < games; game++) {
+            int x = results.playerX[game];
+            int o = results.playerO[game];
+            double scoreX = switch (outcomes[results.outcome[game]]) {
+                case X_WINS -> 1;
+                case O_WINS -> 0;
+                case DRAW -> 0.5;
+            };
+            double change = elo.change(ratings[x], ratings[o], scoreX);
+            ratings[x] += change;
+            ratings[o] -= change;
+        }
+
+        Map<UUID, Double> byPlayer = new HashMap<>(results.indexes.size() * 2);
+        results.indexes.forEach((playerId, index) -> byPlayer.put(playerId, ratings[index]));
+        return byPlayer;
+    }
+
+    private static final class Results {
+        private final int[] playerX;
+        private final int[] playerO;
+        private final byte[] outcome;
+        private final Map<UUID, Integer> indexes;
+        private final AtomicInteger nextIndex;
+        private final LongAccumulator firstCorrupt;
+
+        Results(int records) {
+            this.playerX = new int[records];
+            this.playerO = new int[records];
+            this.outcome = new byte[records];
+            this.indexes = new ConcurrentHashMap<>();
+            this.nextIndex = new AtomicInteger();
+            this.firstCorrupt = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        }
+
+        int indexOf(UUID playerId) {
+            return indexes.computeIfAbsent(playerId, id -> nextIndex.getAndIncrement());
+        }
+    }
+
+    private static final class DecodeTask extends RecursiveAction {
+        private final List<MappedByteBuffer> mappings;
+        private final Results results;
+        private final int from;
+        private final int to;
+
+        DecodeTask(List<MappedByteBuffer> mappings, Results results, int from, int to) {
+            this.mappings = mappings;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > DECODE_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecodeTask(mappings, results, from, middle),
+                        new DecodeTask(mappings, results, middle, to));
+                return;
+            }
+
+            CRC32 crc = new CRC32();
+            int outcomes = PlayerStatsStore.GameResult.values().length;
+            for (int record = from; record < to; record++) {
+                ByteBuffer mapping = mappings.get(record / RECORDS_PER_MAPPING);
+                int offset = (record % RECORDS_PER_MAPPING) * RECORD_SIZE;
+                crc.reset();
+                crc.update(mapping.slice(offset, RECORD_SIZE - 4));
+                byte outcome = mapping.get(offset + 32);
+                if ((int) crc.getValue() != mapping.getInt(offset + RECORD_SIZE - 4)
+                        || outcome < 0 || outcome >= outcomes) {
+                    results.firstCorrupt.accumulate(record);
+                    return;
+                }
+                results.playerX[record] = results.indexOf(
+                        new UUID(mapping.getLong(offset), mapping.getLong(offset + 8)));
+                results.playerO[record] = results.indexOf(
+                        new UUID(mapping.getLong(offset + 16), mapping.getLong(offset + 24)));
+                results.outcome[record] = outcome;
+            }
+        }
+    }
+}
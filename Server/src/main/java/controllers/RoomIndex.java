@@ -0,0 +1,81 @@
+package controllers;
+
+import models.GameRoom;
+import models.RoomSummary;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps rooms bucketed by status in creation order so lobby pages can be
+ * served without walking every room on the server.
+ */
+public class RoomIndex {
+    private final Map<GameRoom.RoomStatus, NavigableMap<Long, GameRoom>> roomsByStatus;
+    private final Map<GameRoom.RoomStatus, AtomicInteger> countsByStatus;
+    private final Map<UUID, IndexEntry> entries;
+    private final AtomicLong sequence;
+
+    private record IndexEntry(long sequence, GameRoom.RoomStatus status) {
+    }
+
+    public RoomIndex() {
+        this.roomsByStatus = new EnumMap<>(GameRoom.RoomStatus.class);
+        this.countsByStatus = new EnumMap<>(GameRoom.RoomStatus.class);
+        for (GameRoom.RoomStatus status : GameRoom.RoomStatus.values()) {
+            roomsByStatus.put(status, new ConcurrentSkipListMap<>());
+            countsByStatus.put(status, new AtomicInteger());
+        }
+        this.entries = new ConcurrentHashMap<>();
+        this.sequence = new AtomicLong();
+    }
+
+    public void update(GameRoom room) {
+        entries.compute(room.getGameRoomID(), (id, entry) -> {
+            GameRoom.RoomStatus status = room.getRoomStatus();
+            if (entry == null) {
+                entry = new IndexEntry(sequence.incrementAndGet(), status);
+                countsByStatus.get(status).incrementAndGet();
+            } else if (entry.status() != status) {
+                roomsByStatus.get(entry.status()).remove(entry.sequence());
+                countsByStatus.get(entry.status()).decrementAndGet();
+                countsByStatus.get(status).incrementAndGet();
+                entry = new IndexEntry(entry.sequence(), status);
+            }
+            roomsByStatus.get(status).put(entry.sequence(), room);
+            return entry;
+        });
+    }
+
+    public void remove(UUID roomId) {
+        entries.computeIfPresent(roomId, (id, entry) -> {
+            roomsByStatus.get(entry.status()).remove(entry.sequence());
+            countsByStatus.get(entry.status()).decrementAndGet();
+            return null;
+        });
+    }
+
+    public int count(GameRoom.RoomStatus status) {
+        return countsByStatus.get(status).get();
+    }
+
+    public ArrayList<RoomSummary> list(GameRoom.RoomStatus status, int offset, int limit) {
+        ArrayList<RoomSummary> page = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        Iterator<GameRoom> rooms = roomsByStatus.get(status).values().iterator();
+        for (int skipped = 0; skipped < offset && rooms.hasNext(); skipped++) {
+            rooms.next();
+        }
+        while (page.size() < limit && rooms.hasNext()) {
+            page.add(RoomSummary.of(rooms.next()));
+        }
+        return page;
+    }
+}
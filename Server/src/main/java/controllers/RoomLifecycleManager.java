@@ -0,0 +1,155 @@
+package controllers;
+
+import models.GameRoom;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Expires finished rooms after a grace period and waiting rooms that have
+ * seen no activity for the idle timeout. Each room has at most one pending
+ * deadline in a delay queue; activity only records a timestamp and the
+ * deadline is pushed back lazily when it fires, so nothing ever scans the room map.
+ */
+public class RoomLifecycleManager {
+    private static final Logger LOGGER = Logger.getLogger(RoomLifecycleManager.class.getName());
+
+    private final Map<UUID, GameRoom> rooms;
+    private final Consumer<UUID> evictionHandler;
+    private final long finishedRoomTtlNanos;
+    private final long waitingRoomIdleNanos;
+    private final DelayQueue<Expiry> expiries;
+    private final Map<UUID, Long> lastActivity;
+    private final AtomicLong evictedFinishedRooms;
+    private final AtomicLong evictedWaitingRooms;
+    private final Thread reaperThread;
+
+    public RoomLifecycleManager(Map<UUID, GameRoom> rooms, Consumer<UUID> evictionHandler,
+                                Duration finishedRoomTtl, Duration waitingRoomIdleTimeout) {
+        this.rooms = rooms;
+        this.evictionHandler = evictionHandler;
+        this.finishedRoomTtlNanos = finishedRoomTtl.toNanos();
+        this.waitingRoomIdleNanos = waitingRoomIdleTimeout.toNanos();
+        this.expiries = new DelayQueue<>();
+        this.lastActivity = new ConcurrentHashMap<>();
+        this.evictedFinishedRooms = new AtomicLong();
+        this.evictedWaitingRooms = new AtomicLong();
+        this.reaperThread = new Thread(this::reap, "room-reaper");
+        this.reaperThread.setDaemon(true);
+        this.reaperThread.start();
+    }
+
+    public void roomCreated(UUID roomId) {
+        long now = System.nanoTime();
+        lastActivity.put(roomId, now);
+        expiries.add(new Expiry(roomId, now + waitingRoomIdleNanos, false));
+    }
+
+    public void touch(UUID roomId) {
+        lastActivity.computeIfPresent(roomId, (id, previous) -> System.nanoTime());
+    }
+
+    public void roomFinished(UUID roomId) {
+        expiries.add(new Expiry(roomId, System.nanoTime() + finishedRoomTtlNanos, true));
+    }
+
+    public void forget(UUID roomId) {
+        lastActivity.remove(roomId);
+    }
+
+    public long getEvictedRoomCount() {
+        return evictedFinishedRooms.get() + evictedWaitingRooms.get();
+    }
+
+    public long getEvictedFinishedRoomCount() {
+        return evictedFinishedRooms.get();
+    }
+
+    public long getEvictedWaitingRoomCount() {
+        return evictedWaitingRooms.get();
+    }
+
+    public void shutdown() {
+        reaperThread.interrupt();
+    }
+
+    private void reap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                handleExpiry(expiries.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Room reaper error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleExpiry(Expiry expiry) {
+        GameRoom room = rooms.get(expiry.roomId);
+        if (room == null) {
+            forget(expiry.roomId);
+            return;
+        }
+
+        switch (room.getRoomStatus()) {
+            case FINISHED -> {
+                if (expiry.finished) {
+                    evict(expiry.roomId, evictedFinishedRooms, "finished");
+                }
+            }
+            case WAITING -> {
+                Long lastSeen = lastActivity.get(expiry.roomId);
+                long deadline = (lastSeen != null ? lastSeen : 0L) + waitingRoomIdleNanos;
+                if (lastSeen == null || deadline - System.nanoTime() <= 0) {
+                    evict(expiry.roomId, evictedWaitingRooms, "abandoned");
+                } else {
+                    expiries.add(new Expiry(expiry.roomId, deadline, false));
+                }
+            }
+            case PLAYING -> {
+            }
+        }
+    }
+
+    private void evict(UUID roomId, AtomicLong counter, String reason) {
+        forget(roomId);
+        evictionHandler.accept(roomId);
+        long total = counter.incrementAndGet();
+        LOGGER.info("Evicted " + reason + " room " + roomId + " (" + reason + " rooms evicted so far: " + total
+                + ", total: " + getEvictedRoomCount() + ")");
+    }
+
+    private static final class Expiry implements Delayed {
+        private final UUID roomId;
+        private final long deadlineNanos;
+        private final boolean finished;
+
+        Expiry(UUID roomId, long deadlineNanos, boolean finished) {
+            this.roomId = roomId;
+            this.deadlineNanos = deadlineNanos;
+            this.finished = finished;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Expiry expiry) {
+                return Long.compare(deadlineNanos - expiry.deadlineNanos, 0);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package controllers;
+
+import metrics.LatencyHistogram;
+import models.GameRoom;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.rmi.RemoteException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+
+/**
+ * Call counts, error counts and latency histograms for every remote method of
+ * the game server, plus room and player gauges. Recording is a couple of
+ * uncontended atomic increments per call, so it is meant to stay enabled.
+ */
+public class ServerMetrics implements ServerMetricsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(ServerMetrics.class.getName());
+    private static final String OBJECT_NAME = "tictactoe:type=ServerMetrics";
+
+    @FunctionalInterface
+    public interface RemoteCall<T> {
+        T call() throws RemoteException;
+    }
+
+    @FunctionalInterface
+    public interface RemoteAction {
+        void run() throws RemoteException;
+    }
+
+    private final Map<String, LatencyHistogram> histograms;
+    private final AtomicInteger inFlightCalls;
+    private final IntSupplier registeredPlayers;
+    private final ToIntFunction<GameRoom.RoomStatus> roomsByStatus;
+    private final LongSupplier evictedRooms;
+    private ScheduledExecutorService snapshotScheduler;
+    private ObjectName objectName;
+
+    public ServerMetrics(IntSupplier registeredPlayers, ToIntFunction<GameRoom.RoomStatus> roomsByStatus,
+                         LongSupplier evictedRooms) {
+        this.histograms = new ConcurrentHashMap<>();
+        this.inFlightCalls = new AtomicInteger();
+        this.registeredPlayers = registeredPlayers;
+        this.roomsByStatus = roomsByStatus;
+        this.evictedRooms = evictedRooms;
+    }
+
+    public <T> T record(String method, RemoteCall<T> call) throws RemoteException {
+        LatencyHistogram histogram = histograms.computeIfAbsent(method, name -> new LatencyHistogram());
+        inFlightCalls.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            return result;
+        } catch (RemoteException | RuntimeException e) {
+            histogram.recordError();
+            throw e;
+        } finally {
+            inFlightCalls.decrementAndGet();
+        }
+    }
+
+    public void record(String method, RemoteAction action) throws RemoteException {
+        record(method, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            LOGGER.warning("Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    public void startSnapshotDump(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleAtFixedRate(() -> LOGGER.info(dumpSnapshot()),
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.warning("Could not unregister metrics MBean: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public long getTotalCalls() {
+        return histograms.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    @Override
+    public long getTotalErrors() {
+        return histograms.values().stream().mapToLong(LatencyHistogram::getErrors).sum();
+    }
+
+    @Override
+    public int getInFlightCalls() {
+        return inFlightCalls.get();
+    }
+
+    @Override
+    public int getRegisteredPlayers() {
+        return registeredPlayers.getAsInt();
+    }
+
+    @Override
+    public int getWaitingRooms() {
+        return roomsByStatus.applyAsInt(GameRoom.RoomStatus.WAITING);
+    }
+
+    @Override
+    public int getPlayingRooms() {
+        return roomsByStatus.applyAsInt(GameRoom.RoomStatus.PLAYING);
+    }
+
+    @Override
+    public int getFinishedRooms() {
+        return roomsByStatus.applyAsInt(GameRoom.RoomStatus.FINISHED);
+    }
+
+    @Override
+    public long getEvictedRooms() {
+        return evictedRooms.getAsLong();
+    }
+
+    @Override
+    public List<MethodStatistics> getMethodStatistics() {
+        List<MethodStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            statistics.add(new MethodStatistics(entry.getKey(), histogram.getCount(), histogram.getErrors(),
+                    histogram.percentileMicros(50), histogram.percentileMicros(99),
+                    histogram.percentileMicros(99.9), histogram.getMaxMicros()));
+        }
+        return statistics;
+    }
+
+    @Override
+    public String dumpSnapshot() {
+        StringBuilder snapshot = new StringBuilder();
+        snapshot.append(String.format("Server metrics: players=%d rooms waiting=%d playing=%d finished=%d "
+                        + "evicted=%d inFlight=%d calls=%d errors=%d",
+                getRegisteredPlayers(), getWaitingRooms(), getPlayingRooms(), getFinishedRooms(),
+                getEvictedRooms(), getInFlightCalls(), getTotalCalls(), getTotalErrors()));
+        for (MethodStatistics statistics : getMethodStatistics()) {
+            snapshot.append(System.lineSeparator()).append("  ").append(statistics);
+        }
+        return snapshot.toString();
+    }
+}
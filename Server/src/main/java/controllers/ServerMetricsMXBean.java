@@ -0,0 +1,26 @@
+package controllers;
+
+import java.util.List;
+
+public interface ServerMetricsMXBean {
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    int getInFlightCalls();
+
+    int getRegisteredPlayers();
+
+    int getWaitingRooms();
+
+    int getPlayingRooms();
+
+    int getFinishedRooms();
+
+    long getEvictedRooms();
+
+    List<MethodStatistics> getMethodStatistics();
+
+    String dumpSnapshot();
+}
@@ -0,0 +1,200 @@
+package controllers;
+
+import interfaces.SpectatorListener;
+import models.GameRoom;
+import models.GameState;
+import models.GameStateDelta;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Streams games to spectators. A move costs the player's thread one flag flip
+ * on the room's audience, however many people are watching; a fan-out thread
+ * then wakes every spectator of the room and a delivery pool sends each one
+ * everything it has not seen yet as a single delta.
+ *
+ * A spectator's backlog is a window over the room's own move list, so it
+ * holds no copies of moves. A spectator more than {@value #MAX_BATCH} moves
+ * behind gets one snapshot of the current state instead, and a spectator whose
+ * callback fails or takes longer than {@link #SLOW_DELIVERY_NANOS} is dropped.
+ * A callback to a client that never answers is only bounded by
+ * {@code sun.rmi.transport.tcp.responseTimeout}, which {@code TicTacToeServer}
+ * sets; it then fails with a {@link RemoteException} and frees its delivery
+ * thread.
+ */
+public class SpectatorHub {
+    private static final Logger LOGGER = Logger.getLogger(SpectatorHub.class.getName());
+    private static final int MAX_BATCH = 64;
+    private static final long SLOW_DELIVERY_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final int NOT_DELIVERED = -1;
+
+    private final Map<UUID, Audience> audiences;
+    private final ExecutorService fanOut;
+    private final ExecutorService delivery;
+
+    public SpectatorHub(int deliveryThreads) {
+        this.audiences = new ConcurrentHashMap<>();
+        this.fanOut = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "spectator-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void watch(GameRoom room, SpectatorListener listener) {
+        Spectator spectator = new Spectator(audiences.computeIfAbsent(room.getGameRoomID(),
+                id -> new Audience(room)), listener);
+        spectator.audience.spectators.add(spectator);
+        spectator.wake();
+    }
+
+    public void unwatch(UUID roomId, SpectatorListener listener) {
+        Audience audience = audiences.get(roomId);
+        if (audience != null) {
+            audience.spectators.removeIf(spectator -> spectator.listener.equals(listener));
+        }
+    }
+
+    public void roomChanged(UUID roomId) {
+        Audience audience = audiences.get(roomId);
+        if (audience != null) {
+            audience.changed();
+        }
+    }
+
+    public void removeRoom(UUID roomId) {
+        audiences.remove(roomId);
+    }
+
+    public int getSpectatorCount() {
+        int count = 0;
+        for (Audience audience : audiences.values()) {
+            count += audience.spectators.size();
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        fanOut.shutdownNow();
+        delivery.shutdownNow();
+    }
+
+    private void drop(Spectator spectator, String reason) {
+        if (spectator.audience.spectators.remove(spectator)) {
+            LOGGER.warning("Dropped spectator of room " + spectator.audience.room.getGameRoomID() + ": " + reason);
+        }
+    }
+
+    private final class Audience implements Runnable {
+        private final GameRoom room;
+        private final List<Spectator> spectators;
+        private final AtomicBoolean scheduled;
+
+        Audience(GameRoom room) {
+            this.room = room;
+            this.spectators = new CopyOnWriteArrayList<>();
+            this.scheduled = new AtomicBoolean(false);
+        }
+
+        void changed() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    fanOut.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            scheduled.set(false);
+            for (Spectator spectator : spectators) {
+                spectator.wake();
+            }
+        }
+    }
+
+    private final class Spectator implements Runnable {
+        private final Audience audience;
+        private final SpectatorListener listener;
+        private final AtomicBoolean scheduled;
+        private int delivered;
+        private boolean deliveredFinished;
+
+        Spectator(Audience audience, SpectatorListener listener) {
+            this.audience = audience;
+            this.listener = listener;
+            this.scheduled = new AtomicBoolean(false);
+            this.delivered = NOT_DELIVERED;
+        }
+
+        void wake() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    delivery.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            UUID roomId = audience.room.getGameRoomID();
+            try {
+                while (isBehind()) {
+                    GameState state = audience.room.getGameState();
+                    long start = System.nanoTime();
+                    if (delivered == NOT_DELIVERED || state.getMoves().size() - delivered > MAX_BATCH) {
+                        int moveCount = state.getMoves().size();
+                        boolean finished = state.isFinished();
+                        listener.onSnapshot(roomId, state);
+                        delivered = moveCount;
+                        deliveredFinished = finished;
+                    } else {
+                        GameStateDelta delta = GameStateDelta.since(state, delivered);
+                        listener.onUpdate(roomId, delta);
+                        delivered = delta.getMoveCount();
+                        deliveredFinished = delta.isFinished();
+                    }
+                    if (System.nanoTime() - start > SLOW_DELIVERY_NANOS) {
+                        drop(this, "delivery too slow");
+                        return;
+                    }
+                }
+            } catch (RemoteException e) {
+                drop(this, e.getMessage());
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (isBehind()) {
+                wake();
+            }
+        }
+
+        private boolean isBehind() {
+            GameState state = audience.room.getGameState();
+            return delivered == NOT_DELIVERED
+                    || state.getMoves().size() != delivered
+                    || state.isFinished() != deliveredFinished;
+        }
+    }
+}
@@ -5,15 +5,24 @@ import models.Move;
 import models.Player;
 
 public class TicTacToeRules {
-    public static final int BOARD_SIZE = 3;
-    private static final int WINNING_LENGTH = 3;
+    public static final int MIN_BOARD_SIZE = 3;
+    public static final int MAX_BOARD_SIZE = 19;
+    private static final int MIN_WINNING_LENGTH = 3;
+    private static final char EMPTY_CELL = ' ';
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    public static boolean isValidBoard(int boardSize, int winningLength) {
+        return boardSize >= MIN_BOARD_SIZE && boardSize <= MAX_BOARD_SIZE
+                && winningLength >= MIN_WINNING_LENGTH && winningLength <= boardSize;
+    }
+
 
     public static boolean isValidMove(GameState gameState, Move move) {
         if (!isPlayerTurn(gameState, move.getPlayer())) {
             return false;
         }
 
-        if (!isWithinBounds(move.getRow(), move.getColumn())) {
+        if (!isWithinBounds(gameState, move.getRow(), move.getColumn())) {
             return false;
         }
 
@@ -31,30 +40,25 @@ public class TicTacToeRules {
     }
 
 
-    private static boolean isWithinBounds(int row, int column) {
-        return row >= 0 && row < BOARD_SIZE && column >= 0 && column < BOARD_SIZE;
+    private static boolean isWithinBounds(GameState gameState, int row, int column) {
+        int boardSize = gameState.getBoardSize();
+        return row >= 0 && row < boardSize && column >= 0 && column < boardSize;
     }
 
 
     private static boolean isCellEmpty(GameState gameState, int row, int column) {
-        return gameState.getMoves().stream()
-                .noneMatch(move -> move.getRow() == row && move.getColumn() == column);
+        return gameState.getBoard()[row][column] == EMPTY_CELL;
     }
 
 
     public static Player checkWinner(GameState gameState) {
-        if (gameState.getMoves().size() < WINNING_LENGTH) {
+        if (gameState.getMoves().size() < 2 * gameState.getWinningLength() - 1) {
             return null;
         }
 
         Move lastMove = gameState.getMoves().get(gameState.getMoves().size() - 1);
-        Player lastPlayer = lastMove.getPlayer();
-
-        if (checkRow(gameState, lastMove.getRow(), lastPlayer) ||
-                checkColumn(gameState, lastMove.getColumn(), lastPlayer) ||
-                checkDiagonal(gameState, lastPlayer) ||
-                checkAntiDiagonal(gameState, lastPlayer)) {
-            return lastPlayer;
+        if (completesLine(gameState, lastMove.getRow(), lastMove.getColumn())) {
+            return lastMove.getPlayer();
         }
 
         return null;
@@ -62,34 +66,39 @@ public class TicTacToeRules {
 
 
     public static boolean isDraw(GameState gameState) {
-        return gameState.getMoves().size() == BOARD_SIZE * BOARD_SIZE && checkWinner(gameState) == null;
-    }
-
-
-    private static boolean checkRow(GameState gameState, int row, Player player) {
-        return gameState.getMoves().stream()
-                .filter(move -> move.getRow() == row && move.getPlayer().equals(player))
-                .count() == BOARD_SIZE;
+        int boardSize = gameState.getBoardSize();
+        return gameState.getMoves().size() == boardSize * boardSize && checkWinner(gameState) == null;
     }
 
 
-    private static boolean checkColumn(GameState gameState, int column, Player player) {
-        return gameState.getMoves().stream()
-                .filter(move -> move.getColumn() == column && move.getPlayer().equals(player))
-                .count() == BOARD_SIZE;
-    }
-
+    private static boolean completesLine(GameState gameState, int row, int column) {
+        char[][] board = gameState.getBoard();
+        char symbol = board[row][column];
+        int winningLength = gameState.getWinningLength();
 
-    private static boolean checkDiagonal(GameState gameState, Player player) {
-        return gameState.getMoves().stream()
-                .filter(move -> move.getRow() == move.getColumn() && move.getPlayer().equals(player))
-                .count() == BOARD_SIZE;
+        for (int[] direction : DIRECTIONS) {
+            int run = 1
+                    + countRun(board, row, column, direction[0], direction[1], symbol, winningLength)
+                    + countRun(board, row, column, -direction[0], -direction[1], symbol, winningLength);
+            if (run >= winningLength) {
+                return true;
+            }
+        }
+        return false;
     }
 
 
-    private static boolean checkAntiDiagonal(GameState gameState, Player player) {
-        return gameState.getMoves().stream()
-                .filter(move -> move.getRow() + move.getColumn() == BOARD_SIZE - 1 && move.getPlayer().equals(player))
-                .count() == BOARD_SIZE;
+    private static int countRun(char[][] board, int row, int column, int rowStep, int columnStep,
+                                char symbol, int limit) {
+        int count = 0;
+        int r = row + rowStep;
+        int c = column + columnStep;
+        while (count < limit - 1 && r >= 0 && r < board.length && c >= 0 && c < board.length
+                && board[r][c] == symbol) {
+            count++;
+            r += rowStep;
+            c += columnStep;
+        }
+        return count;
     }
 }
@@ -0,0 +1,402 @@
+package persistence;
+
+import models.GameHistoryEntry;
+import models.GameState;
+import models.Move;
+import models.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only history of finished games in fixed-size memory-mapped segment
+ * files. A game's history id is its byte offset across all segments. Every
+ * record links back to the previous game of each of its two players, so the
+ * only per-player index kept in memory is the offset of the player's latest
+ * game and a player's history is read by following the chain, one record at
+ * a time, straight out of the mapped files.
+ *
+ * Finished games are encoded by the thread that ended them and queued for a
+ * single writer thread, which links each record to its players' previous
+ * games, copies a whole batch into the mapped segment and forces it once
+ * (group commit, as in {@link PlayerStatsStore}). A game becomes visible to
+ * readers only after its batch is on disk.
+ */
+public class GameHistoryStore implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(GameHistoryStore.class.getName());
+
+    public static final long NO_GAME = -1;
+
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int SEGMENT_MAGIC = 0x54544748;
+    private static final int SEGMENT_HEADER_SIZE = 16;
+    private static final int FIXED_BODY_SIZE = 8 + 8 + 16 + 16 + 16 + 8 + 1 + 1 + 1 + 2;
+    private static final byte RESULT_DRAW = 0;
+    private static final byte RESULT_X = 1;
+    private static final byte RESULT_O = 2;
+    private static final int MAX_BATCH = 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+
+    private record PendingGame(UUID playerX, UUID playerO, ByteBuffer record) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments;
+    private final List<FileChannel> channels;
+    private final Map<UUID, Long> latestGame;
+    private final CRC32 crc;
+    private final BlockingQueue<PendingGame> pending;
+    private final Thread writerThread;
+    private volatile boolean running;
+    private volatile long end;
+    private int position;
+
+    public GameHistoryStore(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segments = new CopyOnWriteArrayList<>();
+        this.channels = new ArrayList<>();
+        this.latestGame = new ConcurrentHashMap<>();
+        this.crc = new CRC32();
+        this.pending = new LinkedBlockingQueue<>();
+
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream =
+                     Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        this.segmentSize = files.isEmpty() ? segmentSize : readSegmentSize(files.get(0));
+        for (Path file : files) {
+            mapSegment(file);
+        }
+        if (segments.isEmpty()) {
+            addSegment();
+        }
+        recover();
+
+        this.running = true;
+        this.writerThread = new Thread(this::writeLoop, "game-history-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a finished game to be written. Throws only if the game cannot be
+     * recorded at all; the write itself happens on the writer thread.
+     */
+    public void append(GameState state) throws IOException {
+        Player playerX = state.getPlayerX();
+        Player playerO = state.getPlayerO();
+        byte[] nameX = playerX.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] nameO = playerO.getName().getBytes(StandardCharsets.UTF_8);
+        List<Move> moves = state.getMoves();
+        int bodySize = FIXED_BODY_SIZE + moves.size() * 2 + 2 + nameX.length + 2 + nameO.length;
+        int recordSize = 4 + bodySize + 4;
+        if (SEGMENT_HEADER_SIZE + recordSize > segmentSize || nameX.length > 0xFFFF || nameO.length > 0xFFFF) {
+            throw new IOException("Game record too large for history segment: " + recordSize + " bytes");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(recordSize);
+        record.putInt(bodySize)
+                .putLong(NO_GAME)
+                .putLong(NO_GAME);
+        putUuid(record, state.getGameID());
+        putUuid(record, playerX.getPlayerId());
+        putUuid(record, playerO.getPlayerId());
+        record.putLong(System.currentTimeMillis())
+                .put((byte) state.getBoardSize())
+                .put((byte) state.getWinningLength())
+                .put(resultOf(state))
+                .putShort((short) moves.size());
+        int boardSize = state.getBoardSize();
+        for (Move move : moves) {
+            int side = move.getPlayer().equals(playerX) ? 0 : 1;
+            record.putShort((short) ((move.getRow() * boardSize + move.getColumn()) << 1 | side));
+        }
+        record.putShort((short) nameX.length).put(nameX)
+                .putShort((short) nameO.length).put(nameO);
+        pending.add(new PendingGame(playerX.getPlayerId(), playerO.getPlayerId(), record));
+    }
+
+    /**
+     * Returns up to {@code limit} of the player's games, newest first, starting
+     * with the game played before {@code beforeHistoryId}, or with the latest
+     * game if it is {@link #NO_GAME}.
+     */
+    public List<GameHistoryEntry> playerGames(UUID playerId, long beforeHistoryId, int limit) throws IOException {
+        long next;
+        if (beforeHistoryId == NO_GAME) {
+            next = latestGame.getOrDefault(playerId, NO_GAME);
+        } else {
+            next = previousGameOf(playerId, beforeHistoryId);
+        }
+        List<GameHistoryEntry> page = new ArrayList<>(Math.min(limit, 64));
+        while (next != NO_GAME && page.size() < limit) {
+            ByteBuffer body = readBody(next);
+            page.add(toEntry(next, body));
+            next = previousGameOf(playerId, next, body);
+        }
+        return page;
+    }
+
+    public GameState replay(long historyId) throws IOException {
+        ByteBuffer body = readBody(historyId);
+        GameHistoryEntry entry = toEntry(historyId, body);
+        Player playerX = new Player(entry.getPlayerXName(), entry.getPlayerXId());
+        Player playerO = new Player(entry.getPlayerOName(), entry.getPlayerOId());
+
+        GameState state = new GameState(entry.getGameID(), entry.getBoardSize(), entry.getWinningLength());
+        state.setPlayerX(playerX);
+        state.setPlayerO(playerO);
+        state.startGame();
+        for (int i = 0; i < entry.getMoveCount(); i++) {
+            int packed = body.getShort(FIXED_BODY_SIZE + i * 2);
+            int cell = packed >> 1;
+            Player player = (packed & 1) == 0 ? playerX : playerO;
+            state.addMove(new Move(cell / entry.getBoardSize(), cell % entry.getBoardSize(), i,
+                    entry.getGameID(), player));
+        }
+        if (entry.getWinnerId() != null) {
+            state.setWinner(entry.getWinnerId().equals(playerX.getPlayerId()) ? playerX : playerO);
+        }
+        state.finishGame();
+        return state;
+    }
+
+    public int getPlayerCount() {
+        return latestGame.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to close game history segment: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingGame> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingGame first = pending.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                LOGGER.severe("Failed to write game history: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Links, checksums and copies every game of the batch into the mapped
+     * segments, forces each touched range once, and only then publishes the
+     * new latest games. Links to games earlier in the same batch come from a
+     * local map, since those are not published yet.
+     */
+    private void writeBatch(List<PendingGame> batch) throws IOException {
+        Map<UUID, Long> written = new HashMap<>();
+        int flushFrom = position;
+        for (PendingGame game : batch) {
+            ByteBuffer record = game.record();
+            int recordSize = record.capacity();
+            if (position + recordSize > segmentSize) {
+                forceRange(flushFrom);
+                addSegment();
+                flushFrom = position;
+            }
+            long historyId = (long) (segments.size() - 1) * segmentSize + position;
+            record.putLong(4, written.getOrDefault(game.playerX(), latestGame.getOrDefault(game.playerX(), NO_GAME)))
+                    .putLong(12, written.getOrDefault(game.playerO(), latestGame.getOrDefault(game.playerO(), NO_GAME)));
+            crc.reset();
+            crc.update(record.array(), 4, recordSize - 8);
+            record.putInt(recordSize - 4, (int) crc.getValue());
+            segments.get(segments.size() - 1).put(position, record.array());
+            position += recordSize;
+            written.put(game.playerX(), historyId);
+            written.put(game.playerO(), historyId);
+        }
+        forceRange(flushFrom);
+        latestGame.putAll(written);
+        end = (long) (segments.size() - 1) * segmentSize + position;
+    }
+
+    private void forceRange(int from) {
+        if (position > from) {
+            segments.get(segments.size() - 1).force(from, position - from);
+        }
+    }
+
+    private long previousGameOf(UUID playerId, long historyId) throws IOException {
+        return previousGameOf(playerId, historyId, readBody(historyId));
+    }
+
+    private static long previousGameOf(UUID playerId, long historyId, ByteBuffer body) throws IOException {
+        if (playerId.equals(getUuid(body, 32))) {
+            return body.getLong(0);
+        }
+        if (playerId.equals(getUuid(body, 48))) {
+            return body.getLong(8);
+        }
+        throw new IOException("Game " + historyId + " was not played by " + playerId);
+    }
+
+    private ByteBuffer readBody(long historyId) throws IOException {
+        if (historyId < 0 || historyId >= end) {
+            throw new IOException("Unknown game history id: " + historyId);
+        }
+        MappedByteBuffer segment = segments.get((int) (historyId / segmentSize));
+        int offset = (int) (historyId % segmentSize);
+        ByteBuffer body = checkedBody(segment, offset, new CRC32());
+        if (body == null) {
+            throw new IOException("Unknown game history id: " + historyId);
+        }
+        return body;
+    }
+
+    private ByteBuffer checkedBody(ByteBuffer segment, int offset, CRC32 checksum) {
+        if (offset < SEGMENT_HEADER_SIZE || offset + 4 > segmentSize) {
+            return null;
+        }
+        int bodySize = segment.getInt(offset);
+        if (bodySize < FIXED_BODY_SIZE || (long) offset + 4 + bodySize + 4 > segmentSize) {
+            return null;
+        }
+        ByteBuffer body = segment.slice(offset + 4, bodySize);
+        checksum.reset();
+        checksum.update(body.duplicate());
+        if ((int) checksum.getValue() != segment.getInt(offset + 4 + bodySize)) {
+            return null;
+        }
+        return body;
+    }
+
+    private static GameHistoryEntry toEntry(long historyId, ByteBuffer body) {
+        UUID playerXId = getUuid(body, 32);
+        UUID playerOId = getUuid(body, 48);
+        int boardSize = body.get(72);
+        int moveCount = body.getShort(75);
+        int nameOffset = FIXED_BODY_SIZE + moveCount * 2;
+        String nameX = getString(body, nameOffset);
+        String nameO = getString(body, nameOffset + 2 + Short.toUnsignedInt(body.getShort(nameOffset)));
+        UUID winnerId = switch (body.get(74)) {
+            case RESULT_X -> playerXId;
+            case RESULT_O -> playerOId;
+            default -> null;
+        };
+        return new GameHistoryEntry(historyId, getUuid(body, 16), playerXId, nameX, playerOId, nameO, winnerId,
+                boardSize, body.get(73), moveCount, body.getLong(64));
+    }
+
+    private void recover() {
+        long start = System.nanoTime();
+        long games = 0;
+        for (int index = 0; index < segments.size(); index++) {
+            MappedByteBuffer segment = segments.get(index);
+            int offset = SEGMENT_HEADER_SIZE;
+            ByteBuffer body;
+            while ((body = checkedBody(segment, offset, crc)) != null) {
+                long historyId = (long) index * segmentSize + offset;
+                latestGame.put(getUuid(body, 32), historyId);
+                latestGame.put(getUuid(body, 48), historyId);
+                offset += 4 + body.capacity() + 4;
+                games++;
+            }
+            position = offset;
+            end = (long) index * segmentSize + offset;
+        }
+        LOGGER.info(String.format("Indexed %d games for %d players from %d history segments in %d ms",
+                games, latestGame.size(), segments.size(), (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private void addSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        MappedByteBuffer segment = mapSegment(file);
+        segment.putInt(0, SEGMENT_MAGIC).putInt(4, segmentSize);
+        segment.force(0, SEGMENT_HEADER_SIZE);
+        position = SEGMENT_HEADER_SIZE;
+        end = (long) (segments.size() - 1) * segmentSize + position;
+    }
+
+    private MappedByteBuffer mapSegment(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        channels.add(channel);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static int readSegmentSize(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            channel.read(header, 0);
+            if (header.getInt(0) != SEGMENT_MAGIC) {
+                throw new IOException("Corrupt game history segment: " + file);
+            }
+            return header.getInt(4);
+        }
+    }
+
+    private static byte resultOf(GameState state) {
+        Player winner = state.getWinner();
+        if (winner == null) {
+            return RESULT_DRAW;
+        }
+        return winner.equals(state.getPlayerX()) ? RESULT_X : RESULT_O;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer, int index) {
+        return new UUID(buffer.getLong(index), buffer.getLong(index + 8));
+    }
+
+    private static String getString(ByteBuffer buffer, int index) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(index))];
+        buffer.get(index + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,299 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Maps normalised player names to stable player ids.
+ *
+ * Every identity lives in an on-disk open-addressing hash table of fixed-size
+ * slots, so a lookup is one positional read per probe and memory use does not
+ * grow with the number of players ever seen. Recently resolved names are kept
+ * in a bounded LRU cache in front of the table. Each slot also keeps the name
+ * as the player last typed it, for showing to other players.
+ */
+public class PlayerRegistry implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(PlayerRegistry.class.getName());
+
+    public static final int MAX_NAME_BYTES = 109;
+
+    private static final String INDEX_FILE = "players.idx";
+    private static final int INDEX_MAGIC = 0x54545049;
+    private static final int INDEX_VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 256;
+    private static final int SLOT_NAME_OFFSET = 1 + 2 + 16;
+    private static final int SLOT_DISPLAY_OFFSET = SLOT_NAME_OFFSET + MAX_NAME_BYTES;
+    private static final byte SLOT_EMPTY = 0;
+    private static final byte SLOT_USED = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path indexFile;
+    private record Entry(UUID playerId, int index, String displayName) {
+    }
+
+    private final Map<String, Entry> cache;
+    private final ByteBuffer slot;
+    private FileChannel channel;
+    private int capacity;
+    private int size;
+
+    public PlayerRegistry(Path directory, int cacheSize) throws IOException {
+        Files.createDirectories(directory);
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.slot = ByteBuffer.allocate(SLOT_SIZE);
+
+        if (Files.exists(indexFile)) {
+            openIndex();
+        } else {
+            createIndex(indexFile, INITIAL_CAPACITY);
+            openIndex();
+        }
+        LOGGER.info("Opened player registry with " + size + " players (" + capacity + " slots)");
+    }
+
+    public static String normalise(String name) {
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFKC).strip().toLowerCase(Locale.ROOT);
+        return folded.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Returns the id already registered for this name, or registers the
+     * candidate id if the name has never been seen before. The name is kept
+     * as given for {@link #forEach}.
+     */
+    public synchronized UUID resolve(String name, UUID candidateId) throws IOException {
+        String key = normalise(name);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Player name must not be empty");
+        }
+        byte[] displayBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (displayBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Player name is too long");
+        }
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Player name is too long");
+            }
+            entry = lookup(keyBytes);
+            if (entry == null) {
+                entry = insert(keyBytes, candidateId, displayBytes);
+            }
+        }
+        if (!entry.displayName().equals(name)) {
+            writeDisplayName(entry.index(), displayBytes);
+            entry = new Entry(entry.playerId(), entry.index(), name);
+        }
+        cache.put(key, entry);
+        return entry.playerId();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Visits every registered player with the name it last registered under,
+     * as typed. This reads the whole table and is meant for rebuilding indexes
+     * at startup.
+     */
+    public synchronized void forEach(BiConsumer<UUID, String> action) throws IOException {
+        for (int index = 0; index < capacity; index++) {
+            readSlot(channel, index);
+            if (slot.get(0) == SLOT_USED) {
+                action.accept(slotPlayerId(), new String(slotDisplayBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning("Failed to close player registry: " + e.getMessage());
+        }
+    }
+
+    private Entry lookup(byte[] keyBytes) throws IOException {
+        int mask = capacity - 1;
+        for (int index = hash(keyBytes) & mask; ; index = (index + 1) & mask) {
+            readSlot(channel, index);
+            if (slot.get(0) == SLOT_EMPTY) {
+                return null;
+            }
+            if (slotNameEquals(keyBytes)) {
+                return new Entry(slotPlayerId(), index, new String(slotDisplayBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private Entry insert(byte[] keyBytes, UUID playerId, byte[] displayBytes) throws IOException {
+        if ((size + 1) * 2 > capacity) {
+            grow();
+        }
+        int index = writeSlot(channel, capacity, keyBytes, playerId, displayBytes);
+        size++;
+        ByteBuffer count = ByteBuffer.allocate(4).putInt(0, size);
+        channel.write(count, 12);
+        channel.force(false);
+        return new Entry(playerId, index, new String(displayBytes, StandardCharsets.UTF_8));
+    }
+
+    private void writeDisplayName(int index, byte[] displayBytes) throws IOException {
+        ByteBuffer display = ByteBuffer.allocate(2 + displayBytes.length)
+                .putShort((short) displayBytes.length)
+                .put(displayBytes)
+                .flip();
+        long position = slotPosition(index) + SLOT_DISPLAY_OFFSET;
+        while (display.hasRemaining()) {
+            position += channel.write(display, position);
+        }
+        channel.force(false);
+    }
+
+    private void grow() throws IOException {
+        int newCapacity = capacity * 2;
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        createIndex(temp, newCapacity);
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int index = 0; index < capacity; index++) {
+                readSlot(channel, index);
+                if (slot.get(0) == SLOT_USED) {
+                    byte[] keyBytes = new byte[slot.getShort(1)];
+                    slot.get(SLOT_NAME_OFFSET, keyBytes);
+                    writeSlot(target, newCapacity, keyBytes, slotPlayerId(), slotDisplayBytes());
+                }
+            }
+            target.write(ByteBuffer.allocate(4).putInt(0, size), 12);
+            target.force(true);
+        }
+        channel.close();
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        openIndex();
+        cache.clear();
+        LOGGER.info("Grew player registry to " + capacity + " slots");
+    }
+
+    private int writeSlot(FileChannel target, int targetCapacity, byte[] keyBytes, UUID playerId,
+                          byte[] displayBytes) throws IOException {
+        int mask = targetCapacity - 1;
+        int index = hash(keyBytes) & mask;
+        ByteBuffer state = ByteBuffer.allocate(1);
+        while (true) {
+            state.clear();
+            target.read(state, slotPosition(index));
+            if (state.get(0) != SLOT_USED) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(SLOT_SIZE);
+        record.put(SLOT_USED)
+                .putShort((short) keyBytes.length)
+                .putLong(playerId.getMostSignificantBits())
+                .putLong(playerId.getLeastSignificantBits())
+                .put(keyBytes)
+                .position(SLOT_DISPLAY_OFFSET);
+        record.putShort((short) displayBytes.length)
+                .put(displayBytes);
+        record.clear();
+        long position = slotPosition(index);
+        while (record.hasRemaining()) {
+            position += target.write(record, position);
+        }
+        return index;
+    }
+
+    private void readSlot(FileChannel source, int index) throws IOException {
+        slot.clear();
+        long position = slotPosition(index);
+        while (slot.hasRemaining()) {
+            int read = source.read(slot, position);
+            if (read < 0) {
+                throw new IOException("Truncated player registry at slot " + index);
+            }
+            position += read;
+        }
+    }
+
+    private UUID slotPlayerId() {
+        return new UUID(slot.getLong(3), slot.getLong(11));
+    }
+
+    private byte[] slotDisplayBytes() {
+        byte[] displayBytes = new byte[slot.getShort(SLOT_DISPLAY_OFFSET)];
+        slot.get(SLOT_DISPLAY_OFFSET + 2, displayBytes);
+        return displayBytes;
+    }
+
+    private boolean slotNameEquals(byte[] keyBytes) {
+        if (slot.getShort(1) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (slot.get(SLOT_NAME_OFFSET + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void openIndex() throws IOException {
+        channel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+        }
+        if (header.position() < HEADER_SIZE || header.getInt(0) != INDEX_MAGIC || header.getInt(4) != INDEX_VERSION) {
+            throw new IOException("Corrupt player registry: " + indexFile);
+        }
+        capacity = header.getInt(8);
+        size = header.getInt(12);
+    }
+
+    private static void createIndex(Path file, int capacity) throws IOException {
+        try (FileChannel target = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putInt(capacity).putInt(0);
+            header.flip();
+            target.write(header, 0);
+            target.write(ByteBuffer.allocate(1), slotPosition(capacity) - 1);
+            target.force(true);
+        }
+    }
+
+    private static long slotPosition(int index) {
+        return HEADER_SIZE + (long) index * SLOT_SIZE;
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int h = 0x811c9dc5;
+        for (byte b : keyBytes) {
+            h = (h ^ (b & 0xff)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,418 @@
+package persistence;
+
+import models.Player;
+import models.PlayerStats;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Durable win/loss/draw counters and ratings keyed by player id.
+ *
+ * Game results are queued by the game threads and written by a single writer
+ * thread, which appends whole batches to the current log segment and forces
+ * them to disk once per batch (group commit). Callers never wait for the disk.
+ * Once enough records have accumulated the writer rolls to a new segment and
+ * writes a compacted snapshot covering every earlier segment; recovery loads the
+ * newest snapshot and replays only the segments written after it.
+ *
+ * Every game is also appended to a results log that is never compacted, so
+ * ratings can be recomputed from scratch when the rating parameters change.
+ */
+public class PlayerStatsStore implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(PlayerStatsStore.class.getName());
+
+    public enum GameResult {
+        X_WINS, O_WINS, DRAW
+    }
+
+    private enum Outcome {
+        WIN, LOSS, DRAW
+    }
+
+    public record Standing(int wins, int losses, int draws, double rating) {
+        public static final Standing NEW_PLAYER = new Standing(0, 0, 0, PlayerStats.INITIAL_RATING);
+
+        public int games() {
+            return wins + losses + draws;
+        }
+
+        Standing apply(Outcome outcome, double newRating) {
+            return switch (outcome) {
+                case WIN -> new Standing(wins + 1, losses, draws, newRating);
+                case LOSS -> new Standing(wins, losses + 1, draws, newRating);
+                case DRAW -> new Standing(wins, losses, draws + 1, newRating);
+            };
+        }
+    }
+
+    private record Game(UUID playerX, UUID playerO, GameResult result, double ratingX, double ratingO) {
+    }
+
+    private static final String LOG_PREFIX = "stats-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x54545354;
+    private static final int RECORD_SIZE = 16 + 1 + 8 + 4;
+    public static final String RESULTS_LOG = "results.log";
+    public static final int RESULT_RECORD_SIZE = 16 + 16 + 1 + 4;
+    private static final int MAX_BATCH = 4096;
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+
+    private final Path directory;
+    private final long snapshotEveryRecords;
+    private final Map<UUID, Standing> standings;
+    private final BlockingQueue<Game> pending;
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer resultsBuffer;
+    private final CRC32 crc;
+    private final Object writeLock;
+    private final Thread writerThread;
+    private volatile boolean running;
+    private FileChannel logChannel;
+    private FileChannel resultsChannel;
+    private long segment;
+    private long recordsSinceSnapshot;
+
+    public PlayerStatsStore(Path directory, long snapshotEveryRecords) throws IOException {
+        this.directory = directory;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.standings = new ConcurrentHashMap<>();
+        this.pending = new LinkedBlockingQueue<>();
+        this.writeBuffer = ByteBuffer.allocateDirect(MAX_BATCH * 2 * RECORD_SIZE);
+        this.resultsBuffer = ByteBuffer.allocateDirect(MAX_BATCH * RESULT_RECORD_SIZE);
+        this.crc = new CRC32();
+        this.writeLock = new Object();
+
+        Files.createDirectories(directory);
+        recover();
+        openSegment(segment);
+        openResultsLog();
+
+        this.running = true;
+        this.writerThread = new Thread(this::writeLoop, "player-stats-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void recordGame(UUID playerX, UUID playerO, GameResult result, double ratingX, double ratingO) {
+        pending.add(new Game(playerX, playerO, result, ratingX, ratingO));
+    }
+
+    public Standing get(UUID playerId) {
+        return standings.getOrDefault(playerId, Standing.NEW_PLAYER);
+    }
+
+    public void restoreInto(Player player) {
+        Standing stored = standings.get(player.getPlayerId());
+        if (stored != null) {
+            player.getPlayerStats().restore(stored.wins(), stored.losses(), stored.draws(), stored.rating());
+        }
+    }
+
+    public int size() {
+        return standings.size();
+    }
+
+    public Path getResultsLog() {
+        return directory.resolve(RESULTS_LOG);
+    }
+
+    /**
+     * Overwrites the stored ratings, for example after recomputing them with
+     * new rating parameters, and writes a snapshot so the change is durable.
+     * Players missing from the map keep their current rating. Meant for
+     * offline use while no games are being recorded.
+     */
+    public void replaceRatings(Map<UUID, Double> ratings) throws IOException {
+        synchronized (writeLock) {
+            standings.replaceAll((playerId, standing) -> {
+                Double rating = ratings.get(playerId);
+                return rating == null ? standing
+                        : new Standing(standing.wins(), standing.losses(), standing.draws(), rating);
+            });
+            rollAndSnapshot();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Game> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !pending.isEmpty()) {
+            try {
+                Game first = pending.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                synchronized (writeLock) {
+                    appendBatch(batch);
+                    batch.clear();
+                    if (recordsSinceSnapshot >= snapshotEveryRecords) {
+                        rollAndSnapshot();
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                LOGGER.severe("Failed to persist player stats: " + e.getMessage());
+                batch.clear();
+            }
+        }
+        try {
+            logChannel.force(false);
+            logChannel.close();
+            resultsChannel.force(false);
+            resultsChannel.close();
+        } catch (IOException e) {
+            LOGGER.warning("Failed to close player stats log: " + e.getMessage());
+        }
+    }
+
+    private void appendBatch(List<Game> batch) throws IOException {
+        resultsBuffer.clear();
+        writeBuffer.clear();
+        for (Game game : batch) {
+            int start = resultsBuffer.position();
+            putUuid(resultsBuffer, game.playerX());
+            putUuid(resultsBuffer, game.playerO());
+            resultsBuffer.put((byte) game.result().ordinal());
+            putChecksum(resultsBuffer, start);
+
+            putStatsRecord(game.playerX(), outcomeOfX(game.result()), game.ratingX());
+            putStatsRecord(game.playerO(), outcomeOfO(game.result()), game.ratingO());
+        }
+        writeFully(resultsChannel, resultsBuffer);
+        writeFully(logChannel, writeBuffer);
+
+        for (Game game : batch) {
+            apply(game.playerX(), outcomeOfX(game.result()), game.ratingX());
+            apply(game.playerO(), outcomeOfO(game.result()), game.ratingO());
+        }
+        recordsSinceSnapshot += 2L * batch.size();
+    }
+
+    private void putStatsRecord(UUID playerId, Outcome outcome, double rating) {
+        int start = writeBuffer.position();
+        putUuid(writeBuffer, playerId);
+        writeBuffer.put((byte) outcome.ordinal());
+        writeBuffer.putDouble(rating);
+        putChecksum(writeBuffer, start);
+    }
+
+    private void putChecksum(ByteBuffer buffer, int start) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private static Outcome outcomeOfX(GameResult result) {
+        return switch (result) {
+            case X_WINS -> Outcome.WIN;
+            case O_WINS -> Outcome.LOSS;
+            case DRAW -> Outcome.DRAW;
+        };
+    }
+
+    private static Outcome outcomeOfO(GameResult result) {
+        return switch (result) {
+            case X_WINS -> Outcome.LOSS;
+            case O_WINS -> Outcome.WIN;
+            case DRAW -> Outcome.DRAW;
+        };
+    }
+
+    private void apply(UUID playerId, Outcome outcome, double rating) {
+        standings.merge(playerId, Standing.NEW_PLAYER.apply(outcome, rating),
+                (current, ignored) -> current.apply(outcome, rating));
+    }
+
+    private void rollAndSnapshot() throws IOException {
+        long coveredUpTo = segment;
+        logChannel.force(false);
+        logChannel.close();
+        openSegment(coveredUpTo + 1);
+        recordsSinceSnapshot = 0;
+
+        Map<UUID, Standing> copy = new HashMap<>(standings);
+        Path snapshot = directory.resolve(fileName(coveredUpTo + 1, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(snapshot.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(copy.size());
+            for (Map.Entry<UUID, Standing> entry : copy.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().wins());
+                out.writeInt(entry.getValue().losses());
+                out.writeInt(entry.getValue().draws());
+                out.writeDouble(entry.getValue().rating());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteFilesBefore(coveredUpTo + 1);
+        LOGGER.info("Wrote player stats snapshot " + snapshot.getFileName() + " with " + copy.size() + " players");
+    }
+
+    private void recover() throws IOException {
+        long snapshotSegment = -1;
+        long lastSegment = -1;
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SNAPSHOT_SUFFIX)) {
+                    snapshotSegment = Math.max(snapshotSegment, parseSegment(name, SNAPSHOT_SUFFIX));
+                } else if (name.endsWith(LOG_SUFFIX)) {
+                    long number = parseSegment(name, LOG_SUFFIX);
+                    segments.add(number);
+                    lastSegment = Math.max(lastSegment, number);
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        if (snapshotSegment >= 0) {
+            loadSnapshot(directory.resolve(fileName(snapshotSegment, SNAPSHOT_SUFFIX)));
+        }
+        segments.sort(Long::compare);
+        long replayed = 0;
+        for (long number : segments) {
+            if (number >= snapshotSegment) {
+                replayed += replaySegment(directory.resolve(fileName(number, LOG_SUFFIX)));
+            }
+        }
+        recordsSinceSnapshot = replayed;
+        segment = Math.max(lastSegment + 1, Math.max(snapshotSegment, 0));
+        LOGGER.info(String.format("Recovered stats for %d players (%d log records replayed) in %d ms",
+                standings.size(), replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private void loadSnapshot(Path snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot), 1 << 20))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Corrupt player stats snapshot: " + snapshot);
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                standings.put(playerId, new Standing(in.readInt(), in.readInt(), in.readInt(), in.readDouble()));
+            }
+        }
+    }
+
+    private long replaySegment(Path log) throws IOException {
+        long records = 0;
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record);
+        Outcome[] outcomes = Outcome.values();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(log), 1 << 20))) {
+            while (true) {
+                try {
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(record, 0, RECORD_SIZE - 4);
+                int outcome = record[16];
+                if ((int) crc.getValue() != view.getInt(RECORD_SIZE - 4) || outcome < 0 || outcome >= outcomes.length) {
+                    LOGGER.warning("Ignoring torn tail of " + log.getFileName() + " after " + records + " records");
+                    break;
+                }
+                apply(new UUID(view.getLong(0), view.getLong(8)), outcomes[outcome], view.getDouble(17));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        logChannel = FileChannel.open(directory.resolve(fileName(number, LOG_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void openResultsLog() throws IOException {
+        resultsChannel = FileChannel.open(getResultsLog(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long complete = resultsChannel.size() - resultsChannel.size() % RESULT_RECORD_SIZE;
+        if (complete != resultsChannel.size()) {
+            LOGGER.warning("Truncating torn tail of " + RESULTS_LOG + " to " + complete + " bytes");
+            resultsChannel.truncate(complete);
+        }
+        resultsChannel.position(complete);
+    }
+
+    private void deleteFilesBefore(long number) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean stale = (name.endsWith(LOG_SUFFIX) && parseSegment(name, LOG_SUFFIX) < number)
+                        || (name.endsWith(SNAPSHOT_SUFFIX) && parseSegment(name, SNAPSHOT_SUFFIX) < number);
+                if (stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static String fileName(long number, String suffix) {
+        return String.format("%s%012d%s", LOG_PREFIX, number, suffix);
+    }
+
+    private static long parseSegment(String name, String suffix) {
+        return Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - suffix.length()));
+    }
+}
@@ -0,0 +1,105 @@
+package chat;
+
+import org.junit.jupiter.api.Test;
+import protocol.FrameCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChatHistoryTest {
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void replaysEverythingButTheReadersOwnFrames() throws IOException {
+        ChatHistory history = new ChatHistory(8, 1024);
+        history.add(FrameCodec.encode("a1"), alice);
+        history.add(FrameCodec.encode("b1"), bob);
+        history.add(FrameCodec.encode("a2"), alice);
+        history.add(FrameCodec.encode("b2"), bob);
+
+        assertEquals(List.of("b1", "b2"), decode(history.replay(alice)));
+        assertEquals(List.of("a1", "a2"), decode(history.replay(bob)));
+        assertEquals(List.of("a1", "b1", "a2", "b2"), decode(history.replay(UUID.randomUUID())));
+    }
+
+    @Test
+    void replaysNothingWhenOnlyTheReaderSpoke() {
+        ChatHistory history = new ChatHistory(8, 1024);
+        assertNull(history.replay(alice));
+
+        history.add(FrameCodec.encode("a1"), alice);
+        assertNull(history.replay(alice));
+    }
+
+    /**
+     * Frames of different lengths wrap around the end of the ring many times
+     * while the oldest are overwritten by both limits. The frames that should
+     * survive each add are worked out here from the two limits alone.
+     */
+    @Test
+    void skipsFramesThatWrapAroundTheRing() throws IOException {
+        int maxMessages = 5;
+        int maxBytes = 64;
+        ChatHistory history = new ChatHistory(maxMessages, maxBytes);
+        Deque<Integer> kept = new ArrayDeque<>();
+        int keptBytes = 0;
+        List<String> messages = new ArrayList<>();
+        List<UUID> senders = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String message = "m" + i + "-".repeat(i % 13);
+            UUID sender = i % 3 == 0 ? alice : bob;
+            history.add(FrameCodec.encode(message), sender);
+            messages.add(message);
+            senders.add(sender);
+
+            int length = FrameCodec.HEADER_BYTES + message.length();
+            while (kept.size() == maxMessages || keptBytes + length > maxBytes) {
+                keptBytes -= FrameCodec.HEADER_BYTES + messages.get(kept.removeFirst()).length();
+            }
+            kept.addLast(i);
+            keptBytes += length;
+            counts.add(kept.size());
+
+            List<String> all = new ArrayList<>();
+            List<String> forBob = new ArrayList<>();
+            for (int j : kept) {
+                all.add(messages.get(j));
+                if (!senders.get(j).equals(bob)) {
+                    forBob.add(messages.get(j));
+                }
+            }
+            List<String> retained = decode(history.replay(UUID.randomUUID()));
+            assertEquals(kept.size(), retained.size(), "frames retained after message " + i);
+            assertEquals(all, retained);
+            assertEquals(forBob, decode(history.replay(bob)));
+        }
+        assertEquals(List.of(1, 2, 3, 4, 5, 5, 5, 5, 5, 4, 4, 4, 3, 4, 4, 5), counts.subList(0, 16),
+                "five frames until the longer ones hit the 64 byte limit");
+    }
+
+    private static List<String> decode(ByteBuffer frames) throws IOException {
+        List<String> messages = new ArrayList<>();
+        if (frames == null) {
+            return messages;
+        }
+        FrameCodec codec = new FrameCodec(false);
+        codec.readFrom(Channels.newChannel(new ByteArrayInputStream(frames.array(), 0, frames.limit())));
+        String message;
+        while ((message = codec.nextMessage()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+}
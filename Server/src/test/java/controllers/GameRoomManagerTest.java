@@ -0,0 +1,124 @@
+package controllers;
+
+import models.GameRoom;
+import models.Move;
+import models.Player;
+import org.junit.jupiter.api.Test;
+import persistence.PlayerStatsStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.rmi.RemoteException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class GameRoomManagerTest {
+    private final Player playerX = new Player("X");
+    private final Player playerO = new Player("O");
+
+    @Test
+    void onlyTheMoveThatEndsTheGameReportsIt() throws Exception {
+        try (Fixture fixture = new Fixture()) {
+            GameRoom room = fixture.startedRoom();
+            int[][] moves = {{0, 0}, {1, 0}, {0, 1}, {1, 1}};
+            for (int[] cell : moves) {
+                assertFalse(fixture.play(room, cell[0], cell[1]));
+            }
+            assertTrue(fixture.play(room, 0, 2));
+            assertEquals(GameRoom.RoomStatus.FINISHED, room.getRoomStatus());
+        }
+    }
+
+    @Test
+    void drawIsReportedOnce() throws Exception {
+        try (Fixture fixture = new Fixture()) {
+            GameRoom room = fixture.startedRoom();
+            int[][] moves = {{0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {1, 2}, {2, 1}, {2, 0}};
+            for (int[] cell : moves) {
+                assertFalse(fixture.play(room, cell[0], cell[1]));
+            }
+            assertTrue(fixture.play(room, 2, 2));
+        }
+    }
+
+    @Test
+    void moveAfterAForfeitDoesNotEndTheGameAgain() throws Exception {
+        try (Fixture fixture = new Fixture()) {
+            GameRoom room = fixture.startedRoom();
+            assertFalse(fixture.play(room, 0, 0));
+            assertEquals(GameRoomManager.Departure.FORFEITED, fixture.manager.leave(room, playerX.getPlayerId()));
+            try {
+                fixture.play(room, 1, 1);
+                fail("move accepted after the game was forfeited");
+            } catch (RemoteException expected) {
+                // The forfeit already ended the game.
+            }
+            assertEquals(GameRoomManager.Departure.NONE, fixture.manager.leave(room, playerO.getPlayerId()));
+        }
+    }
+
+    @Test
+    void loadTestGamesAreNeitherStoredNorRanked() throws Exception {
+        Player botX = new Player(GameRoomManager.LOAD_TEST_PREFIX + "x");
+        Player botO = new Player(GameRoomManager.LOAD_TEST_PREFIX + "o");
+        Path directory;
+        try (Fixture fixture = new Fixture()) {
+            directory = fixture.directory;
+            GameRoom won = fixture.startedRoom(botX, botO);
+            int[][] moves = {{0, 0}, {1, 0}, {0, 1}, {1, 1}, {0, 2}};
+            for (int[] cell : moves) {
+                fixture.play(won, cell[0], cell[1]);
+            }
+            GameRoom forfeited = fixture.startedRoom(botX, botO);
+            fixture.play(forfeited, 0, 0);
+            assertEquals(GameRoomManager.Departure.FORFEITED, fixture.manager.leave(forfeited, botO.getPlayerId()));
+
+            assertEquals(2, botX.getPlayerStats().getWins(), "the game itself is still played out");
+            assertEquals(0, fixture.leaderboard.size());
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, 1000)) {
+            assertEquals(PlayerStatsStore.Standing.NEW_PLAYER, store.get(botX.getPlayerId()));
+            assertEquals(PlayerStatsStore.Standing.NEW_PLAYER, store.get(botO.getPlayerId()));
+        }
+    }
+
+    private final class Fixture implements AutoCloseable {
+        private final Path directory;
+        private final PlayerStatsStore statsStore;
+        private final Leaderboard leaderboard;
+        private final GameRoomManager manager;
+
+        Fixture() throws Exception {
+            this.directory = Files.createTempDirectory("room-manager-test");
+            this.statsStore = new PlayerStatsStore(directory, 1000);
+            this.leaderboard = new Leaderboard();
+            this.manager = new GameRoomManager(statsStore, leaderboard, new EloRating(EloRating.DEFAULT_K_FACTOR));
+        }
+
+        GameRoom startedRoom() throws RemoteException {
+            return startedRoom(playerX, playerO);
+        }
+
+        GameRoom startedRoom(Player x, Player o) throws RemoteException {
+            GameRoom room = manager.createRoom("test", x, 3, 3);
+            manager.joinRoom(room, o);
+            manager.startGame(room);
+            return room;
+        }
+
+        boolean play(GameRoom room, int row, int column) throws RemoteException {
+            Player player = room.getGameState().getCurrentPlayerTurn();
+            return manager.makeMove(room, new Move(row, column, room.getGameState().getMoves().size(),
+                    room.getGameState().getGameID(), player));
+        }
+
+        @Override
+        public void close() {
+            statsStore.close();
+        }
+    }
+}
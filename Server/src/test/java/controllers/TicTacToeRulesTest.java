@@ -0,0 +1,254 @@
+package controllers;
+
+import models.GameState;
+import models.Move;
+import models.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicTacToeRulesTest {
+    private static final int SIZE = 3;
+
+    private final Player playerX = new Player("X");
+    private final Player playerO = new Player("O");
+
+    /**
+     * Plays every reachable 3x3 game and compares the rules with the original
+     * move-list implementation after each move.
+     */
+    @Test
+    void matchesBaselineRulesOnEveryReachableGame() {
+        GameState state = newGame(SIZE, SIZE);
+        assertEquals(549946, walk(state, 0));
+    }
+
+    @Test
+    void winsWithFewerThanBoardSizeInARow() {
+        GameState state = play(newGame(7, 4), 3, 1, 0, 0, 3, 2, 0, 6, 3, 3, 6, 6);
+        assertNull(TicTacToeRules.checkWinner(state));
+
+        play(state, 3, 4);
+        assertEquals(playerX, TicTacToeRules.checkWinner(state));
+    }
+
+    @Test
+    void runOfOneLessThanWinningLengthDoesNotWin() {
+        GameState state = play(newGame(7, 4), 3, 1, 0, 0, 3, 2, 0, 6, 3, 4);
+        assertNull(TicTacToeRules.checkWinner(state), "three of four with a gap");
+
+        play(state, 6, 6, 3, 3);
+        assertEquals(playerX, TicTacToeRules.checkWinner(state), "filling the gap joins both halves of the run");
+
+        GameState blocked = play(newGame(7, 4), 3, 1, 3, 4, 3, 2, 0, 6, 3, 3);
+        assertNull(TicTacToeRules.checkWinner(blocked));
+    }
+
+    @Test
+    void winsAlongEveryBoardEdge() {
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 0, 2, 2, 2, 0, 3, 2, 3, 0, 4)), "top row ending in the corner");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 4, 1, 2, 2, 4, 0, 2, 3, 4, 2)), "bottom row starting in the corner");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 4), 1, 0, 1, 1, 2, 0, 2, 1, 3, 0, 3, 1, 4, 0)), "left column");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 4), 4, 4, 0, 0, 3, 4, 0, 1, 2, 4, 0, 2, 1, 4)), "right column");
+    }
+
+    @Test
+    void winsOnDiagonalsThatTouchTheEdges() {
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 1, 3, 0, 0, 2, 2, 0, 1, 0, 4)), "anti-diagonal ending in the top-right corner");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 4, 0, 0, 0, 2, 2, 0, 1, 3, 1)), "anti-diagonal from the bottom-left corner");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 2, 4, 0, 0, 4, 2, 0, 1, 3, 3)), "anti-diagonal off the main one, from the right edge");
+        assertEquals(playerX, TicTacToeRules.checkWinner(
+                play(newGame(5, 3), 2, 0, 0, 4, 4, 2, 1, 4, 3, 1)), "diagonal off the main one, from the left edge");
+    }
+
+    @Test
+    void lineDoesNotWrapAroundTheBoard() {
+        GameState state = play(newGame(5, 3), 0, 4, 3, 3, 1, 0, 3, 4, 1, 1);
+        assertNull(TicTacToeRules.checkWinner(state));
+    }
+
+    @Test
+    void winOnTheLastCellIsNotADraw() {
+        GameState state = play(newGame(3, 3), 0, 0, 0, 1, 0, 2, 1, 0, 1, 1, 1, 2, 2, 1, 2, 0);
+        assertNull(TicTacToeRules.checkWinner(state));
+        assertFalse(TicTacToeRules.isDraw(state));
+
+        play(state, 2, 2);
+        assertEquals(playerX, TicTacToeRules.checkWinner(state));
+        assertFalse(TicTacToeRules.isDraw(state));
+    }
+
+    @Test
+    void fullBoardWithoutALineIsADraw() {
+        GameState state = play(newGame(3, 3), 0, 0, 0, 1, 0, 2, 1, 1, 1, 0, 1, 2, 2, 1, 2, 0, 2, 2);
+        assertNull(TicTacToeRules.checkWinner(state));
+        assertTrue(TicTacToeRules.isDraw(state));
+    }
+
+    /**
+     * Plays random games on boards up to 8x8 and compares checkWinner with a
+     * scan of every line on the board after each move.
+     */
+    @Test
+    void matchesFullBoardScanOnRandomGames() {
+        Random random = new Random(42);
+        for (int game = 0; game < 2000; game++) {
+            int boardSize = 3 + random.nextInt(6);
+            int winningLength = 3 + random.nextInt(boardSize - 2);
+            GameState state = newGame(boardSize, winningLength);
+            List<Integer> cells = new ArrayList<>();
+            for (int cell = 0; cell < boardSize * boardSize; cell++) {
+                cells.add(cell);
+            }
+            Collections.shuffle(cells, random);
+            for (int cell : cells) {
+                play(state, cell / boardSize, cell % boardSize);
+                Player expected = hasLine(state) ? state.getMoves().get(state.getMoves().size() - 1).getPlayer() : null;
+                assertEquals(expected, TicTacToeRules.checkWinner(state),
+                        boardSize + "x" + boardSize + " k=" + winningLength + " after " + state.getMoves().size());
+                if (expected != null) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean hasLine(GameState state) {
+        char[][] board = state.getBoard();
+        int size = state.getBoardSize();
+        int k = state.getWinningLength();
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                for (int[] direction : directions) {
+                    int endRow = row + direction[0] * (k - 1);
+                    int endColumn = column + direction[1] * (k - 1);
+                    if (board[row][column] == ' ' || endRow >= size || endColumn < 0 || endColumn >= size) {
+                        continue;
+                    }
+                    boolean line = true;
+                    for (int i = 1; i < k && line; i++) {
+                        line = board[row + direction[0] * i][column + direction[1] * i] == board[row][column];
+                    }
+                    if (line) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays the given row, column pairs in order, alternating X and O from
+     * whoever is next.
+     */
+    private GameState play(GameState state, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            Player player = state.getMoves().size() % 2 == 0 ? playerX : playerO;
+            Move move = new Move(cells[i], cells[i + 1], state.getMoves().size(), state.getGameID(), player);
+            assertTrue(TicTacToeRules.isValidMove(state, move), "move " + cells[i] + "," + cells[i + 1]);
+            state.addMove(move);
+        }
+        return state;
+    }
+
+    private int walk(GameState state, int depth) {
+        int positions = 1;
+        Player toMove = depth % 2 == 0 ? playerX : playerO;
+        for (int row = -1; row <= SIZE; row++) {
+            for (int column = -1; column <= SIZE; column++) {
+                for (Player player : new Player[]{playerX, playerO}) {
+                    Move move = new Move(row, column, depth, state.getGameID(), player);
+                    assertEquals(Baseline.isValidMove(state, move), TicTacToeRules.isValidMove(state, move),
+                            "isValidMove " + row + "," + column + " after " + state.getMoves().size() + " moves");
+                }
+            }
+        }
+        assertEquals(Baseline.checkWinner(state), TicTacToeRules.checkWinner(state));
+        assertEquals(Baseline.isDraw(state), TicTacToeRules.isDraw(state));
+        if (Baseline.checkWinner(state) != null || Baseline.isDraw(state)) {
+            return positions;
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                Move move = new Move(row, column, depth, state.getGameID(), toMove);
+                if (Baseline.isValidMove(state, move)) {
+                    GameState next = replay(state);
+                    next.addMove(move);
+                    positions += walk(next, depth + 1);
+                }
+            }
+        }
+        return positions;
+    }
+
+    private GameState newGame(int boardSize, int winningLength) {
+        GameState state = new GameState(UUID.randomUUID(), boardSize, winningLength);
+        state.setPlayerX(playerX);
+        state.setPlayerO(playerO);
+        state.startGame();
+        return state;
+    }
+
+    private GameState replay(GameState state) {
+        GameState copy = newGame(state.getBoardSize(), state.getWinningLength());
+        for (Move move : state.getMoves()) {
+            copy.addMove(move);
+        }
+        return copy;
+    }
+
+    /**
+     * The rules as they were before occupancy and win checks used the board.
+     */
+    private static final class Baseline {
+        static boolean isValidMove(GameState gameState, Move move) {
+            if (!TicTacToeRules.isPlayerTurn(gameState, move.getPlayer())) {
+                return false;
+            }
+            if (move.getRow() < 0 || move.getRow() >= SIZE || move.getColumn() < 0 || move.getColumn() >= SIZE) {
+                return false;
+            }
+            return gameState.getMoves().stream()
+                    .noneMatch(m -> m.getRow() == move.getRow() && m.getColumn() == move.getColumn());
+        }
+
+        static Player checkWinner(GameState gameState) {
+            if (gameState.getMoves().size() < SIZE) {
+                return null;
+            }
+            Move lastMove = gameState.getMoves().get(gameState.getMoves().size() - 1);
+            Player player = lastMove.getPlayer();
+            long row = gameState.getMoves().stream()
+                    .filter(m -> m.getRow() == lastMove.getRow() && m.getPlayer().equals(player)).count();
+            long column = gameState.getMoves().stream()
+                    .filter(m -> m.getColumn() == lastMove.getColumn() && m.getPlayer().equals(player)).count();
+            long diagonal = gameState.getMoves().stream()
+                    .filter(m -> m.getRow() == m.getColumn() && m.getPlayer().equals(player)).count();
+            long antiDiagonal = gameState.getMoves().stream()
+                    .filter(m -> m.getRow() + m.getColumn() == SIZE - 1 && m.getPlayer().equals(player)).count();
+            return row == SIZE || column == SIZE || diagonal == SIZE || antiDiagonal == SIZE ? player : null;
+        }
+
+        static boolean isDraw(GameState gameState) {
+            return gameState.getMoves().size() == SIZE * SIZE && checkWinner(gameState) == null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package persistence;
+
+import models.GameHistoryEntry;
+import models.GameState;
+import models.Move;
+import models.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameHistoryStoreTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    /**
+     * Appends many games at once, so players meet again within one writer
+     * batch and the games span several segments, then checks every player's
+     * chain before and after reopening the store.
+     */
+    @Test
+    void chainsEveryPlayersGamesAcrossBatchesAndSegments() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("history-store-test");
+        Player[] players = new Player[5];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player("player-" + i);
+        }
+        List<List<UUID>> expected = new ArrayList<>();
+        for (int i = 0; i < players.length; i++) {
+            expected.add(new ArrayList<>());
+        }
+
+        GameHistoryStore store = new GameHistoryStore(directory, SEGMENT_SIZE);
+        for (int game = 0; game < 300; game++) {
+            int x = game % players.length;
+            int o = (x + 1 + game / players.length % (players.length - 1)) % players.length;
+            GameState state = finishedGame(players[x], players[o]);
+            store.append(state);
+            expected.get(x).add(0, state.getGameID());
+            expected.get(o).add(0, state.getGameID());
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (totalGames(store, players) < 600 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertChains(store, players, expected);
+        store.close();
+
+        GameHistoryStore reopened = new GameHistoryStore(directory, SEGMENT_SIZE);
+        assertChains(reopened, players, expected);
+        reopened.close();
+    }
+
+    private static int totalGames(GameHistoryStore store, Player[] players) throws IOException {
+        int total = 0;
+        for (Player player : players) {
+            total += store.playerGames(player.getPlayerId(), GameHistoryStore.NO_GAME, 1000).size();
+        }
+        return total;
+    }
+
+    private static void assertChains(GameHistoryStore store, Player[] players, List<List<UUID>> expected)
+            throws IOException {
+        for (int i = 0; i < players.length; i++) {
+            List<UUID> games = new ArrayList<>();
+            for (GameHistoryEntry entry : store.playerGames(players[i].getPlayerId(), GameHistoryStore.NO_GAME, 1000)) {
+                games.add(entry.getGameID());
+            }
+            assertEquals(expected.get(i), games);
+        }
+    }
+
+    private static GameState finishedGame(Player playerX, Player playerO) {
+        GameState state = new GameState(UUID.randomUUID());
+        state.setPlayerX(playerX);
+        state.setPlayerO(playerO);
+        state.startGame();
+        int[][] cells = {{0, 0}, {1, 0}, {0, 1}, {1, 1}, {0, 2}};
+        for (int i = 0; i < cells.length; i++) {
+            state.addMove(new Move(cells[i][0], cells[i][1], i, state.getGameID(), i % 2 == 0 ? playerX : playerO));
+        }
+        state.setWinner(playerX);
+        state.finishGame();
+        return state;
+    }
+}
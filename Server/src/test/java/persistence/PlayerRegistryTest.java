@@ -0,0 +1,61 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerRegistryTest {
+
+    @Test
+    void keepsTheNameAsTypedAcrossRestarts() throws IOException {
+        Path directory = Files.createTempDirectory("player-registry-test");
+        UUID alice = UUID.randomUUID();
+        try (PlayerRegistry registry = new PlayerRegistry(directory, 16)) {
+            assertEquals(alice, registry.resolve("Alice", alice));
+        }
+
+        try (PlayerRegistry registry = new PlayerRegistry(directory, 16)) {
+            assertEquals(Map.of(alice, "Alice"), names(registry));
+            assertEquals(alice, registry.resolve("ALICE", UUID.randomUUID()));
+            assertEquals(Map.of(alice, "ALICE"), names(registry), "the latest spelling is shown");
+        }
+
+        try (PlayerRegistry registry = new PlayerRegistry(directory, 16)) {
+            assertEquals(Map.of(alice, "ALICE"), names(registry));
+        }
+    }
+
+    @Test
+    void keepsNamesAsTypedWhenTheTableGrows() throws IOException {
+        Path directory = Files.createTempDirectory("player-registry-test");
+        Map<UUID, String> expected = new HashMap<>();
+        try (PlayerRegistry registry = new PlayerRegistry(directory, 16)) {
+            for (int i = 0; i < 2000; i++) {
+                String name = "Player " + i;
+                expected.put(registry.resolve(name, UUID.randomUUID()), name);
+            }
+            assertEquals(expected, names(registry));
+        }
+
+        try (PlayerRegistry registry = new PlayerRegistry(directory, 16)) {
+            assertEquals(2000, registry.size());
+            assertEquals(expected, names(registry));
+            UUID renamed = registry.resolve("PLAYER 7", UUID.randomUUID());
+            assertEquals("Player 7", expected.put(renamed, "PLAYER 7"));
+            assertEquals(expected, names(registry));
+        }
+    }
+
+    private static Map<UUID, String> names(PlayerRegistry registry) throws IOException {
+        Map<UUID, String> names = new HashMap<>();
+        registry.forEach(names::put);
+        return names;
+    }
+}
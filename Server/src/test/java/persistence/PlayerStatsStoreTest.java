@@ -0,0 +1,183 @@
+package persistence;
+
+import models.Player;
+import models.PlayerStats;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerStatsStoreTest {
+    private static final int RECORD_SIZE = 16 + 1 + 8 + 4;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void ratingsAreReplayedFromTheLog() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(PlayerStatsStore.Standing.NEW_PLAYER, store.get(alice));
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.X_WINS, 1516, 1484);
+            store.recordGame(bob, alice, PlayerStatsStore.GameResult.DRAW, 1485.5, 1514.5);
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 0, 1, 1514.5), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(0, 1, 1, 1485.5), store.get(bob));
+
+            Player player = new Player("alice", alice);
+            store.restoreInto(player);
+            PlayerStats stats = player.getPlayerStats();
+            assertEquals(1, stats.getWins());
+            assertEquals(1, stats.getDraws());
+            assertEquals(1514.5, stats.getRating());
+        }
+    }
+
+    @Test
+    void ratingsSurviveASnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, 2)) {
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.O_WINS, 1484, 1516);
+        }
+        try (var files = Files.list(directory)) {
+            assertTrue(files.anyMatch(file -> file.getFileName().toString().endsWith(".snapshot")));
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(0, 1, 0, 1484), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(1, 0, 0, 1516), store.get(bob));
+        }
+    }
+
+    @Test
+    void replacedRatingsAreDurable() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.X_WINS, 1516, 1484);
+        }
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            store.replaceRatings(Map.of(alice, 1600.0));
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 0, 0, 1600), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(0, 1, 0, 1484), store.get(bob));
+        }
+    }
+
+    @Test
+    void recoversGamesWrittenInSeveralGroupCommits() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            for (int game = 1; game <= 3; game++) {
+                store.recordGame(alice, bob, PlayerStatsStore.GameResult.X_WINS, 1500 + game, 1500 - game);
+                int wins = game;
+                awaitWritten(() -> store.get(alice).wins() == wins);
+            }
+        }
+        assertEquals(3L * 2 * RECORD_SIZE, Files.size(lastSegment(directory)));
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(3, 0, 0, 1503), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(0, 3, 0, 1497), store.get(bob));
+        }
+    }
+
+    @Test
+    void recoversFromASnapshotAndTheLogAfterIt() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, 4)) {
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.X_WINS, 1516, 1484);
+            awaitWritten(() -> store.get(alice).wins() == 1);
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.DRAW, 1514, 1486);
+            awaitWritten(() -> store.get(alice).draws() == 1);
+            store.recordGame(bob, alice, PlayerStatsStore.GameResult.X_WINS, 1502, 1498);
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.getFileName().toString().endsWith(".snapshot")).count());
+        }
+        assertEquals(2L * RECORD_SIZE, Files.size(lastSegment(directory)), "only the last game is in the tail");
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 1, 1, 1498), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(1, 1, 1, 1502), store.get(bob));
+        }
+    }
+
+    @Test
+    void dropsATornLastRecordAndKeepsEverythingBefore() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        writeTwoGames(directory);
+        Files.write(lastSegment(directory), new byte[RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 0, 1, 1510), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(0, 1, 1, 1490), store.get(bob));
+        }
+    }
+
+    @Test
+    void dropsACorruptLastRecordAndKeepsEverythingBefore() throws IOException {
+        Path directory = Files.createTempDirectory("stats-store-test");
+        writeTwoGames(directory);
+        Path segment = lastSegment(directory);
+        byte[] log = Files.readAllBytes(segment);
+        log[log.length - RECORD_SIZE + 20] ^= 1;
+        Files.write(segment, log);
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 0, 1, 1510), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(0, 1, 0, 1484), store.get(bob), "bob's draw was corrupt");
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.O_WINS, 1495, 1505);
+        }
+
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            assertEquals(new PlayerStatsStore.Standing(1, 1, 1, 1495), store.get(alice));
+            assertEquals(new PlayerStatsStore.Standing(1, 1, 0, 1505), store.get(bob),
+                    "records after a corrupt segment go to a new one");
+        }
+    }
+
+    private void writeTwoGames(Path directory) throws IOException {
+        try (PlayerStatsStore store = new PlayerStatsStore(directory, Long.MAX_VALUE)) {
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.X_WINS, 1516, 1484);
+            store.recordGame(alice, bob, PlayerStatsStore.GameResult.DRAW, 1510, 1490);
+        }
+    }
+
+    private static Path lastSegment(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("stats-\\d+\\.log"))
+                    .filter(file -> {
+                        try {
+                            return Files.size(file) > 0;
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    })
+                    .max(Comparator.comparing(Path::getFileName))
+                    .orElseThrow();
+        }
+    }
+
+    private static void awaitWritten(Supplier<Boolean> condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.get()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("store did not write the game in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -62,4 +62,26 @@ project(":Client") {
     }
 }
 
+project(":LoadGenerator") {
+    dependencies {
+        implementation(project(":Common"))
+        implementation(project(":Server"))
+    }
+
+    tasks.jar {
+        manifest {
+            attributes["Main-Class"] = "loadgen.LoadGenerator"
+        }
+        
+        duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+        
+        from({
+            configurations.runtimeClasspath.get().filter { it.name.endsWith("jar") }.map { zipTree(it) }
+        })
+        
+        from(project(":Common").sourceSets.main.get().output)
+        from(project(":Server").sourceSets.main.get().output)
+    }
+}
+
 project(":Common")
\ No newline at end of file
@@ -2,3 +2,5 @@ rootProject.name = "TicTacToe"
 include("Client")
 include("Server")
 include("Common")
+include("Benchmarks")
+include("LoadGenerator")